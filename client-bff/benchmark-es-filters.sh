@@ -0,0 +1,152 @@
+#!/bin/bash
+
+# Vehicle Search Query Benchmark
+# Compares Elasticsearch latency of the previous scoring query shape (Criteria chain:
+# must clauses and a "contains" wildcard on location) with the current filter-context
+# query shape (bool filter clauses and a match on location), on a synthetic benchmark index.
+#
+# Reports the "took" time measured by Elasticsearch, so BFF and network overhead are excluded.
+#
+# Requires: curl, jq
+
+set -e
+
+# Color codes
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+YELLOW='\033[1;33m'
+BLUE='\033[0;34m'
+NC='\033[0m' # No Color
+
+# Variables
+ES_URL="${ES_URL:-http://localhost:9200}"
+ES_AUTH="${ES_AUTH:-}"
+INDEX="${INDEX:-vehicle_search_bench}"
+DOCS="${DOCS:-200000}"
+ITERATIONS="${ITERATIONS:-200}"
+KEEP_INDEX="${KEEP_INDEX:-false}"
+
+CURL_OPTS=(-s -H "Content-Type: application/json")
+if [ -n "$ES_AUTH" ]; then
+    CURL_OPTS+=(-u "$ES_AUTH")
+fi
+
+es() {
+    curl "${CURL_OPTS[@]}" "$@"
+}
+
+for tool in curl jq; do
+    if ! command -v $tool > /dev/null; then
+        echo -e "${RED}✗ $tool is not installed${NC}"
+        exit 1
+    fi
+done
+
+echo -e "${BLUE}========================================${NC}"
+echo -e "${BLUE}Vehicle Search Query Benchmark${NC}"
+echo -e "${BLUE}========================================${NC}"
+echo -e "${YELLOW}Target: $ES_URL, index: $INDEX, docs: $DOCS, iterations: $ITERATIONS${NC}"
+echo ""
+
+if es "$ES_URL/_cluster/health" > /dev/null; then
+    echo -e "${GREEN}✓ Elasticsearch is running${NC}"
+else
+    echo -e "${RED}✗ Elasticsearch is not responding${NC}"
+    exit 1
+fi
+
+# Create the benchmark index with the vehicle_search field types
+echo -e "${YELLOW}Creating index $INDEX...${NC}"
+es -X DELETE "$ES_URL/$INDEX" > /dev/null
+es -X PUT "$ES_URL/$INDEX" -d '{
+  "settings": {"number_of_shards": 1, "number_of_replicas": 0, "refresh_interval": "-1"},
+  "mappings": {"properties": {
+    "id": {"type": "keyword"}, "vehicleId": {"type": "keyword"},
+    "status": {"type": "keyword"}, "bodyType": {"type": "keyword"},
+    "transmission": {"type": "keyword"}, "fuelType": {"type": "keyword"},
+    "seats": {"type": "integer"}, "pricePerDay": {"type": "double"},
+    "location": {"type": "text", "fields": {"keyword": {"type": "keyword"}}},
+    "locationGeo": {"type": "geo_point"}
+  }}
+}' > /dev/null
+
+# Bulk load synthetic vehicles in batches of 5000
+echo -e "${YELLOW}Loading $DOCS documents...${NC}"
+for ((start = 0; start < DOCS; start += 5000)); do
+    awk -v start=$start -v end=$((start + 5000)) -v max=$DOCS 'BEGIN {
+        srand(start);
+        split("Colombo,Kandy,Galle,Negombo,Katunayake,Jaffna", locations, ",");
+        split("SUV,SEDAN,HATCHBACK,VAN", bodyTypes, ",");
+        split("AUTOMATIC,MANUAL", transmissions, ",");
+        split("PETROL,DIESEL,HYBRID,ELECTRIC", fuelTypes, ",");
+        split("AVAILABLE,AVAILABLE,AVAILABLE,UNAVAILABLE,MAINTENANCE", statuses, ",");
+        for (i = start; i < end && i < max; i++) {
+            printf "{\"index\":{\"_id\":\"%d\"}}\n", i;
+            printf "{\"id\":\"%d\",\"vehicleId\":\"%d\",\"status\":\"%s\",\"bodyType\":\"%s\",\"transmission\":\"%s\",\"fuelType\":\"%s\",\"seats\":%d,\"pricePerDay\":%d,\"location\":\"%s\",\"locationGeo\":{\"lat\":%.5f,\"lon\":%.5f}}\n",
+                i, i, statuses[int(rand() * 5) + 1], bodyTypes[int(rand() * 4) + 1],
+                transmissions[int(rand() * 2) + 1], fuelTypes[int(rand() * 4) + 1],
+                2 + int(rand() * 7), 20 + int(rand() * 480), locations[int(rand() * 6) + 1],
+                6.0 + rand() * 3.5, 79.8 + rand() * 2.0;
+        }
+    }' | es -X POST "$ES_URL/$INDEX/_bulk" -H "Content-Type: application/x-ndjson" --data-binary @- > /dev/null
+done
+es -X PUT "$ES_URL/$INDEX/_settings" -d '{"index": {"refresh_interval": "1s"}}' > /dev/null
+es -X POST "$ES_URL/$INDEX/_refresh" > /dev/null
+es -X POST "$ES_URL/$INDEX/_forcemerge?max_num_segments=1" > /dev/null
+echo -e "${GREEN}✓ Loaded $(es "$ES_URL/$INDEX/_count" | jq .count) documents${NC}"
+
+SORT='"sort": [{"pricePerDay": "asc"}], "from": 0, "size": 20'
+
+# Previous shape: every Criteria becomes a scoring clause, "contains" becomes a wildcard
+BEFORE_QUERY='{"query": {"bool": {"must": [
+    {"term": {"status": "AVAILABLE"}},
+    {"query_string": {"query": "*Colombo*", "fields": ["location"], "analyze_wildcard": true}},
+    {"geo_distance": {"distance": "50km", "locationGeo": {"lat": 6.9271, "lon": 79.8612}}},
+    {"term": {"bodyType": "SUV"}},
+    {"range": {"pricePerDay": {"gte": 50}}},
+    {"range": {"pricePerDay": {"lte": 300}}}
+]}}, '"$SORT"'}'
+
+# Current shape: non-scoring filter clauses and a match on location
+AFTER_QUERY='{"query": {"bool": {"filter": [
+    {"term": {"status": "AVAILABLE"}},
+    {"match": {"location": {"query": "Colombo", "operator": "and"}}},
+    {"geo_distance": {"distance": "50km", "locationGeo": {"lat": 6.9271, "lon": 79.8612}}},
+    {"term": {"bodyType": "SUV"}},
+    {"range": {"pricePerDay": {"gte": 50, "lte": 300}}}
+]}}, '"$SORT"'}'
+
+run_benchmark() {
+    local name=$1
+    local query=$2
+    local params=$3
+
+    es -X POST "$ES_URL/$INDEX/_cache/clear" > /dev/null
+
+    local took_file
+    took_file=$(mktemp)
+    for ((i = 0; i < ITERATIONS; i++)); do
+        es -X POST "$ES_URL/$INDEX/_search?$params" -d "$query" | jq .took >> "$took_file"
+    done
+
+    sort -n "$took_file" | awk -v name="$name" '
+        { values[NR] = $1; total += $1 }
+        END {
+            printf "  %-28s avg %6.2f ms   p50 %4d ms   p95 %4d ms   p99 %4d ms\n",
+                name, total / NR, values[int(NR * 0.50) + 1], values[int(NR * 0.95)], values[int(NR * 0.99)];
+        }'
+    rm -f "$took_file"
+}
+
+echo ""
+echo -e "${BLUE}Query latency (Elasticsearch took, $ITERATIONS runs each)...${NC}"
+run_benchmark "before (scoring criteria)" "$BEFORE_QUERY" "request_cache=false"
+run_benchmark "after (filter context)" "$AFTER_QUERY" "request_cache=false"
+run_benchmark "after (+ request cache)" "$AFTER_QUERY" "request_cache=true"
+
+if [ "$KEEP_INDEX" != "true" ]; then
+    es -X DELETE "$ES_URL/$INDEX" > /dev/null
+fi
+
+echo ""
+echo -e "${GREEN}Benchmark complete${NC}"
@@ -0,0 +1,80 @@
+#!/bin/bash
+
+# Client BFF Search Benchmark
+# Measures search throughput per CPU core for the running client-bff instance.
+#
+# Run once per execution mode and compare the "req/s per core" lines, e.g.
+#   SEARCH_EXECUTION_MODE=BLOCKING ...                                   -> ./benchmark-search.sh blocking
+#   SEARCH_EXECUTION_MODE=REACTIVE SPRING_MAIN_WEB_APPLICATION_TYPE=reactive -> ./benchmark-search.sh reactive
+#
+# Requires: hey (https://github.com/rakyll/hey), curl
+
+set -e
+
+# Color codes
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+YELLOW='\033[1;33m'
+BLUE='\033[0;34m'
+NC='\033[0m' # No Color
+
+# Variables
+LABEL="${1:-current}"
+BFF_URL="${BFF_URL:-http://localhost:8089}"
+ACCESS_TOKEN="${ACCESS_TOKEN:?ACCESS_TOKEN must be set to a valid bearer token}"
+CONCURRENCY="${CONCURRENCY:-200}"
+DURATION="${DURATION:-60s}"
+CPU_CORES="${CPU_CORES:-$(nproc)}"
+PICKUP_LOCATION="${PICKUP_LOCATION:-Colombo}"
+PICKUP_DATE="${PICKUP_DATE:-$(date -d '+7 days' +%F)}"
+DROP_OFF_DATE="${DROP_OFF_DATE:-$(date -d '+10 days' +%F)}"
+
+SEARCH_BODY=$(cat <<JSON
+{"pickupLocation":"$PICKUP_LOCATION","pickupDate":"$PICKUP_DATE","pickupTime":"09:00",
+ "dropOffDate":"$DROP_OFF_DATE","dropOffTime":"17:00","pageNumber":0,"pageSize":20}
+JSON
+)
+
+if ! command -v hey > /dev/null; then
+    echo -e "${RED}✗ hey is not installed${NC}"
+    exit 1
+fi
+
+echo -e "${BLUE}========================================${NC}"
+echo -e "${BLUE}Client BFF Search Benchmark ($LABEL)${NC}"
+echo -e "${BLUE}========================================${NC}"
+echo -e "${YELLOW}Target: $BFF_URL, concurrency: $CONCURRENCY, duration: $DURATION, cores: $CPU_CORES${NC}"
+echo ""
+
+if curl -s "$BFF_URL/actuator/health" > /dev/null; then
+    echo -e "${GREEN}✓ Client BFF is running${NC}"
+else
+    echo -e "${RED}✗ Client BFF is not responding${NC}"
+    exit 1
+fi
+
+run_benchmark() {
+    local name=$1
+    local path=$2
+
+    echo ""
+    echo -e "${BLUE}Benchmarking $name ($path)...${NC}"
+
+    local output
+    output=$(hey -z "$DURATION" -c "$CONCURRENCY" -m POST \
+        -H "Authorization: Bearer $ACCESS_TOKEN" \
+        -H "Content-Type: application/json" \
+        -d "$SEARCH_BODY" \
+        "$BFF_URL$path")
+
+    local rps
+    rps=$(echo "$output" | awk '/Requests\/sec/ {print $2}')
+    echo "$output" | grep -E "Requests/sec|Average|99%|\[[0-9]+\]" || true
+    echo -e "${GREEN}  ✓ $name [$LABEL]: $(awk -v r="$rps" -v c="$CPU_CORES" 'BEGIN {printf "%.1f", r / c}') req/s per core${NC}"
+}
+
+run_benchmark "Basic search" "/api/v1/client/search/vehicles"
+run_benchmark "Advanced search" "/api/v1/client/search/advanced/vehicles"
+
+echo ""
+echo -e "${GREEN}Benchmark complete${NC}"
@@ -0,0 +1,87 @@
+#!/bin/bash
+
+# Client BFF Concurrency Ceiling Load Test
+# Ramps concurrent searches and reports where throughput stops scaling.
+#
+# Run once on platform threads and once on virtual threads, then compare:
+#   SPRING_THREADS_VIRTUAL_ENABLED=false ... -> ./loadtest-concurrency.sh platform
+#   SPRING_THREADS_VIRTUAL_ENABLED=true  ... -> ./loadtest-concurrency.sh virtual
+# With platform threads the ceiling sits near server.tomcat.threads.max (200 by default)
+# once pricing-service is slow; with virtual threads it should keep rising.
+#
+# Requires: hey (https://github.com/rakyll/hey), curl
+
+set -e
+
+# Color codes
+RED='\033[0;31m'
+GREEN='\033[0;32m'
+YELLOW='\033[1;33m'
+BLUE='\033[0;34m'
+NC='\033[0m' # No Color
+
+# Variables
+LABEL="${1:-current}"
+BFF_URL="${BFF_URL:-http://localhost:8089}"
+ACCESS_TOKEN="${ACCESS_TOKEN:?ACCESS_TOKEN must be set to a valid bearer token}"
+CONCURRENCY_LEVELS="${CONCURRENCY_LEVELS:-50 100 200 400 800 1600}"
+DURATION="${DURATION:-30s}"
+SEARCH_PATH="${SEARCH_PATH:-/api/v1/client/search/vehicles}"
+PICKUP_LOCATION="${PICKUP_LOCATION:-Colombo}"
+PICKUP_DATE="${PICKUP_DATE:-$(date -d '+7 days' +%F)}"
+DROP_OFF_DATE="${DROP_OFF_DATE:-$(date -d '+10 days' +%F)}"
+
+SEARCH_BODY=$(cat <<JSON
+{"pickupLocation":"$PICKUP_LOCATION","pickupDate":"$PICKUP_DATE","pickupTime":"09:00",
+ "dropOffDate":"$DROP_OFF_DATE","dropOffTime":"17:00"}
+JSON
+)
+
+if ! command -v hey > /dev/null; then
+    echo -e "${RED}✗ hey is not installed${NC}"
+    exit 1
+fi
+
+echo -e "${BLUE}========================================${NC}"
+echo -e "${BLUE}Client BFF Concurrency Load Test ($LABEL)${NC}"
+echo -e "${BLUE}========================================${NC}"
+echo -e "${YELLOW}Target: $BFF_URL$SEARCH_PATH, duration per level: $DURATION${NC}"
+echo ""
+
+if curl -s "$BFF_URL/actuator/health" > /dev/null; then
+    echo -e "${GREEN}✓ Client BFF is running${NC}"
+else
+    echo -e "${RED}✗ Client BFF is not responding${NC}"
+    exit 1
+fi
+
+echo ""
+printf "%-12s %-12s %-12s %-12s\n" "concurrency" "req/s" "p99 (s)" "non-2xx"
+
+PREVIOUS_RPS=0
+CEILING=""
+for LEVEL in $CONCURRENCY_LEVELS; do
+    OUTPUT=$(hey -z "$DURATION" -c "$LEVEL" -m POST \
+        -H "Authorization: Bearer $ACCESS_TOKEN" \
+        -H "Content-Type: application/json" \
+        -d "$SEARCH_BODY" \
+        "$BFF_URL$SEARCH_PATH")
+
+    RPS=$(echo "$OUTPUT" | awk '/Requests\/sec/ {print $2}')
+    P99=$(echo "$OUTPUT" | awk '/ 99% in / {print $3}')
+    NON_2XX=$(echo "$OUTPUT" | awk '/\[[0-9]+\]/ && $1 !~ /\[2[0-9][0-9]\]/ {sum += $2} END {print sum + 0}')
+    printf "%-12s %-12s %-12s %-12s\n" "$LEVEL" "$RPS" "$P99" "$NON_2XX"
+
+    # Throughput gaining less than 10% while doubling concurrency marks the ceiling
+    if [ -z "$CEILING" ] && awk -v r="$RPS" -v p="$PREVIOUS_RPS" 'BEGIN {exit !(p > 0 && r < p * 1.1)}'; then
+        CEILING=$LEVEL
+    fi
+    PREVIOUS_RPS=$RPS
+done
+
+echo ""
+if [ -n "$CEILING" ]; then
+    echo -e "${YELLOW}⚠ [$LABEL] Throughput stopped scaling at concurrency $CEILING${NC}"
+else
+    echo -e "${GREEN}✓ [$LABEL] Throughput kept scaling up to the highest tested concurrency${NC}"
+fi
@@ -0,0 +1,68 @@
+package com.ride.clientbff.config;
+
+import com.ride.clientbff.service.support.HedgePolicy;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Hedging policies for the downstream reads of the search path.
+ * <p>
+ * Each target has its own policy, so each adapts its hedge delay to its own
+ * latencies and spends its own budget. All share the same settings.
+ */
+@Configuration
+@Slf4j
+public class HedgingConfig {
+
+    @Value("${search.hedging.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * Latency percentile after which a read is hedged.
+     */
+    @Value("${search.hedging.percentile:0.95}")
+    private double percentile;
+
+    /**
+     * Hedges allowed per 100 reads.
+     */
+    @Value("${search.hedging.budget-percent:5}")
+    private double budgetPercent;
+
+    @Value("${search.hedging.min-delay:10ms}")
+    private Duration minDelay;
+
+    @Value("${search.hedging.window-size:1000}")
+    private int windowSize;
+
+    @Value("${search.hedging.min-samples:100}")
+    private int minSamples;
+
+    @Bean
+    public HedgePolicy vehicleServiceHedgePolicy(MeterRegistry meterRegistry) {
+        return policy("vehicle-service", meterRegistry);
+    }
+
+    @Bean
+    public HedgePolicy pricingServiceHedgePolicy(MeterRegistry meterRegistry) {
+        return policy("pricing-service", meterRegistry);
+    }
+
+    @Bean
+    public HedgePolicy elasticsearchHedgePolicy(MeterRegistry meterRegistry) {
+        return policy("elasticsearch", meterRegistry);
+    }
+
+    private HedgePolicy policy(String target, MeterRegistry meterRegistry) {
+        if (enabled) {
+            log.info("Hedging {} reads after p{} latency, budget {}%", target, percentile * 100, budgetPercent);
+        }
+        return new HedgePolicy(target, enabled, percentile, budgetPercent, minDelay, windowSize, minSamples,
+                meterRegistry);
+    }
+}
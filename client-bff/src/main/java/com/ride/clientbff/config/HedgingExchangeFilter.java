@@ -0,0 +1,88 @@
+package com.ride.clientbff.config;
+
+import com.ride.clientbff.service.support.HedgePolicy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * WebClient filter hedging reads against another instance of the service.
+ * <p>
+ * GET requests are hedged; other methods only with the
+ * {@link #HEDGEABLE_ATTRIBUTE} request attribute, for reads sent as POST. The
+ * duplicate goes to a random instance registered under the service ID in the
+ * discovery client (Eureka or Kubernetes), other than the primary's host. With
+ * no other instance registered, it goes to the configured base URL again.
+ * <p>
+ * The race covers the response status and headers: once a response is chosen,
+ * its body is read from that instance only. The body of the losing response is
+ * released, so its connection goes back to the pool.
+ */
+public class HedgingExchangeFilter implements ExchangeFilterFunction {
+
+    /**
+     * Request attribute marking a non-GET request as a safe-to-repeat read.
+     */
+    public static final String HEDGEABLE_ATTRIBUTE = HedgingExchangeFilter.class.getName() + ".hedgeable";
+
+    private final String serviceId;
+    private final HedgePolicy hedgePolicy;
+    private final ObjectProvider<DiscoveryClient> discoveryClient;
+
+    public HedgingExchangeFilter(String serviceId, HedgePolicy hedgePolicy,
+                                 ObjectProvider<DiscoveryClient> discoveryClient) {
+        this.serviceId = serviceId;
+        this.hedgePolicy = hedgePolicy;
+        this.discoveryClient = discoveryClient;
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        boolean hedgeable = HttpMethod.GET.equals(request.method())
+                || Boolean.TRUE.equals(request.attribute(HEDGEABLE_ATTRIBUTE).orElse(null));
+        if (!hedgeable) {
+            return next.exchange(request);
+        }
+        return hedgePolicy.execute(next.exchange(request),
+                        () -> next.exchange(ClientRequest.from(request).url(hedgeUrl(request.url())).build()),
+                        HedgingExchangeFilter::release)
+                // Responses dropped by operators after cancellation
+                .doOnDiscard(ClientResponse.class, HedgingExchangeFilter::release);
+    }
+
+    private static void release(ClientResponse response) {
+        response.releaseBody().subscribe();
+    }
+
+    private URI hedgeUrl(URI primaryUrl) {
+        DiscoveryClient client = discoveryClient.getIfAvailable();
+        if (client == null) {
+            return primaryUrl;
+        }
+        List<ServiceInstance> others = client.getInstances(serviceId).stream()
+                .filter(instance -> !(instance.getHost().equalsIgnoreCase(primaryUrl.getHost())
+                        && instance.getPort() == primaryUrl.getPort()))
+                .toList();
+        if (others.isEmpty()) {
+            return primaryUrl;
+        }
+        ServiceInstance instance = others.get(ThreadLocalRandom.current().nextInt(others.size()));
+        return UriComponentsBuilder.fromUri(primaryUrl)
+                .scheme(instance.getScheme() != null ? instance.getScheme() : primaryUrl.getScheme())
+                .host(instance.getHost())
+                .port(instance.getPort())
+                .build(true)
+                .toUri();
+    }
+}
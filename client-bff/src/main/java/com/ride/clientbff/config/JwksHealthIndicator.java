@@ -0,0 +1,30 @@
+package com.ride.clientbff.config;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Reports whether the signing keys of every Keycloak realm are loaded.
+ * Part of the readiness group, so a pod takes no traffic until it can verify
+ * tokens; see {@link RealmKeySets}.
+ */
+@Component
+public class JwksHealthIndicator implements HealthIndicator {
+
+    private final RealmKeySets realmKeySets;
+
+    public JwksHealthIndicator(RealmKeySets realmKeySets) {
+        this.realmKeySets = realmKeySets;
+    }
+
+    @Override
+    public Health health() {
+        Map<String, Boolean> loaded = realmKeySets.loaded();
+        Health.Builder health = loaded.containsValue(false) ? Health.outOfService() : Health.up();
+        loaded.forEach((issuer, keysLoaded) -> health.withDetail(issuer, keysLoaded ? "loaded" : "pending"));
+        return health.build();
+    }
+}
@@ -0,0 +1,48 @@
+package com.ride.clientbff.config;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Extracts Spring authorities from Keycloak realm_access and resource_access roles.
+ * Shared by the servlet and reactive security configurations.
+ */
+public class KeycloakGrantedAuthoritiesConverter implements Converter<Jwt, Collection<GrantedAuthority>> {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Collection<GrantedAuthority> convert(Jwt jwt) {
+        // Extract realm roles
+        Map<String, Object> realmAccess = jwt.getClaimAsMap("realm_access");
+        List<String> realmRoles = realmAccess != null && realmAccess.get("roles") != null
+                ? (List<String>) realmAccess.get("roles")
+                : Collections.emptyList();
+
+        // Extract resource/client roles
+        Map<String, Object> resourceAccess = jwt.getClaimAsMap("resource_access");
+        List<String> resourceRoles = new ArrayList<>();
+        if (resourceAccess != null) {
+            resourceAccess.values().forEach(resource -> {
+                if (resource instanceof Map) {
+                    Map<String, Object> resourceMap = (Map<String, Object>) resource;
+                    List<String> roles = (List<String>) resourceMap.get("roles");
+                    if (roles != null) {
+                        resourceRoles.addAll(roles);
+                    }
+                }
+            });
+        }
+
+        // Combine and convert to Spring authorities
+        return Stream.concat(realmRoles.stream(), resourceRoles.stream())
+                .distinct()
+                .map(role -> new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()))
+                .collect(Collectors.toList());
+    }
+}
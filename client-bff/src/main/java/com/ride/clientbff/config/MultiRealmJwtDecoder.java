@@ -1,34 +1,47 @@
 package com.ride.clientbff.config;
+import com.nimbusds.jwt.JWTParser;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.oauth2.core.OAuth2TokenValidator;
 import org.springframework.security.oauth2.jwt.*;
-import org.springframework.stereotype.Component;
+import java.text.ParseException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 /**
  * Custom JWT decoder that supports multiple Keycloak realms.
  * This allows the client-bff to accept tokens from both:
  * - user-authentication realm (for end users - web/mobile clients)
  * - service-authentication realm (for service-to-service communication)
  *
- * The decoder tries each configured realm in sequence until a valid token is found.
- * If all realms fail, it throws a JwtException with details.
+ * The decoder reads the unverified iss claim and verifies the token with the
+ * decoder of that realm only. Tokens from an unknown issuer, or whose claims
+ * cannot be read, are tried against each configured realm in sequence. If all
+ * realms fail, it throws a JwtException with details.
+ *
+ * Verified tokens are kept in the {@link VerifiedJwtCache} until they expire,
+ * so a repeated bearer token is not verified again. Signing keys come from
+ * {@link RealmKeySets}, which discovers them in the background.
  *
  * @see MultiJwtProps
  */
-@Component
 @Slf4j
 public class MultiRealmJwtDecoder implements JwtDecoder {
-    private final List<JwtDecoder> decoders;
+    private final Map<String, JwtDecoder> decoders;
     private final MultiJwtProps multiJwtProps;
-    public MultiRealmJwtDecoder(MultiJwtProps multiJwtProps) {
+    private final VerifiedJwtCache verifiedJwtCache;
+    private final RealmKeySets realmKeySets;
+    public MultiRealmJwtDecoder(MultiJwtProps multiJwtProps, VerifiedJwtCache verifiedJwtCache,
+                                RealmKeySets realmKeySets) {
         this.multiJwtProps = multiJwtProps;
-        this.decoders = new ArrayList<>();
+        this.verifiedJwtCache = verifiedJwtCache;
+        this.realmKeySets = realmKeySets;
+        this.decoders = new LinkedHashMap<>();
         // User realm decoder (for end users accessing the API)
         String userRealmIssuer = multiJwtProps.userIssuer();
         if (userRealmIssuer != null && !userRealmIssuer.isBlank()) {
             JwtDecoder userDecoder = createDecoder(userRealmIssuer);
-            decoders.add(userDecoder);
+            decoders.put(userRealmIssuer, userDecoder);
             log.info("✅ User realm decoder configured: {}", userRealmIssuer);
         } else {
             log.warn("⚠️ User realm issuer not configured, user authentication will fail");
@@ -37,7 +50,7 @@ public class MultiRealmJwtDecoder implements JwtDecoder {
         String serviceRealmIssuer = multiJwtProps.serviceIssuer();
         if (serviceRealmIssuer != null && !serviceRealmIssuer.isBlank()) {
             JwtDecoder serviceDecoder = createDecoder(serviceRealmIssuer);
-            decoders.add(serviceDecoder);
+            decoders.put(serviceRealmIssuer, serviceDecoder);
             log.info("✅ Service realm decoder configured: {}", serviceRealmIssuer);
         } else {
             log.warn("⚠️ Service realm issuer not configured, service-to-service auth will fail");
@@ -51,15 +64,29 @@ public class MultiRealmJwtDecoder implements JwtDecoder {
      * @return Configured JwtDecoder
      */
     private JwtDecoder createDecoder(String issuerUri) {
-        NimbusJwtDecoder decoder = JwtDecoders.fromIssuerLocation(issuerUri);
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(realmKeySets.jwtProcessor(issuerUri));
         // Add issuer validator
         OAuth2TokenValidator<Jwt> validator = JwtValidators.createDefaultWithIssuer(issuerUri);
         decoder.setJwtValidator(validator);
         return decoder;
     }
     /**
-     * Decodes and validates the JWT token against all configured realms.
-     * Tries each realm in sequence and returns the first successful decode.
+     * Reads the iss claim of a token without verifying its signature. Only used
+     * to pick the realm decoder, which then verifies the token.
+     *
+     * @param token JWT token string
+     * @return the claimed issuer, or null if the token cannot be parsed or has none
+     */
+    static String unverifiedIssuer(String token) {
+        try {
+            return JWTParser.parse(token).getJWTClaimsSet().getIssuer();
+        } catch (ParseException e) {
+            return null;
+        }
+    }
+    /**
+     * Decodes and validates the JWT token with the decoder of its issuer's realm.
+     * A token verified before is answered from the cache.
      *
      * @param token JWT token string
      * @return Decoded JWT
@@ -67,10 +94,23 @@ public class MultiRealmJwtDecoder implements JwtDecoder {
      */
     @Override
     public Jwt decode(String token) throws JwtException {
+        Jwt cached = verifiedJwtCache.getIfPresent(token);
+        if (cached != null) {
+            return cached;
+        }
+        JwtDecoder issuerDecoder = decoders.get(unverifiedIssuer(token));
+        Jwt jwt = issuerDecoder != null ? issuerDecoder.decode(token) : decodeWithAnyRealm(token);
+        verifiedJwtCache.put(jwt);
+        return jwt;
+    }
+    /**
+     * Tries each realm in sequence and returns the first successful decode.
+     */
+    private Jwt decodeWithAnyRealm(String token) {
         List<Exception> exceptions = new ArrayList<>();
         JwtException tokenExpiredException = null;
         // Try each decoder
-        for (JwtDecoder decoder : decoders) {
+        for (JwtDecoder decoder : decoders.values()) {
             try {
                 Jwt jwt = decoder.decode(token);
                 log.debug("✅ Successfully decoded JWT from issuer: {}", jwt.getIssuer());
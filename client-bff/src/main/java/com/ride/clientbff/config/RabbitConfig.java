@@ -0,0 +1,20 @@
+package com.ride.clientbff.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * AMQP configuration. Messages are JSON, read with the application's
+ * ObjectMapper so dates and instants use the same format as the REST API.
+ */
+@Configuration
+public class RabbitConfig {
+
+    @Bean
+    public MessageConverter jsonMessageConverter(ObjectMapper objectMapper) {
+        return new Jackson2JsonMessageConverter(objectMapper);
+    }
+}
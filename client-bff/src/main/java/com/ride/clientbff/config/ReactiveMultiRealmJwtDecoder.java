@@ -0,0 +1,118 @@
+package com.ride.clientbff.config;
+
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.JWTProcessor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.jwt.*;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reactive counterpart of {@link MultiRealmJwtDecoder} for the WebFlux stack.
+ * Accepts tokens from both:
+ * - user-authentication realm (for end users - web/mobile clients)
+ * - service-authentication realm (for service-to-service communication)
+ *
+ * Like the servlet decoder, it verifies a token with the decoder of its
+ * unverified iss claim, falling back to trying each configured realm in
+ * sequence without blocking for unknown issuers. If all realms fail, it errors
+ * with a JwtException. Verified tokens are answered from the
+ * {@link VerifiedJwtCache} until they expire. Signing keys come from
+ * {@link RealmKeySets}; verification itself does not block.
+ */
+@Slf4j
+public class ReactiveMultiRealmJwtDecoder implements ReactiveJwtDecoder {
+    private final Map<String, ReactiveJwtDecoder> decoders = new LinkedHashMap<>();
+    private final VerifiedJwtCache verifiedJwtCache;
+    private final RealmKeySets realmKeySets;
+    public ReactiveMultiRealmJwtDecoder(String userRealmIssuer, String serviceRealmIssuer,
+                                        VerifiedJwtCache verifiedJwtCache, RealmKeySets realmKeySets) {
+        this.verifiedJwtCache = verifiedJwtCache;
+        this.realmKeySets = realmKeySets;
+        // User realm decoder (for end users accessing the API)
+        if (userRealmIssuer != null && !userRealmIssuer.isBlank()) {
+            decoders.put(userRealmIssuer, createDecoder(userRealmIssuer));
+            log.info("✅ Reactive user realm decoder configured: {}", userRealmIssuer);
+        } else {
+            log.warn("⚠️ User realm issuer not configured, user authentication will fail");
+        }
+        // Service realm decoder (for service-to-service communication)
+        if (serviceRealmIssuer != null && !serviceRealmIssuer.isBlank()) {
+            decoders.put(serviceRealmIssuer, createDecoder(serviceRealmIssuer));
+            log.info("✅ Reactive service realm decoder configured: {}", serviceRealmIssuer);
+        } else {
+            log.warn("⚠️ Service realm issuer not configured, service-to-service auth will fail");
+        }
+        log.info("📋 ReactiveMultiRealmJwtDecoder initialized with {} realm(s)", decoders.size());
+    }
+    /**
+     * Creates a reactive JWT decoder for the specified issuer with validation.
+     *
+     * @param issuerUri Keycloak realm issuer URI
+     * @return Configured ReactiveJwtDecoder
+     */
+    private ReactiveJwtDecoder createDecoder(String issuerUri) {
+        // Keys are held in memory, so processing a token never waits on I/O
+        JWTProcessor<SecurityContext> processor = realmKeySets.jwtProcessor(issuerUri);
+        NimbusReactiveJwtDecoder decoder = new NimbusReactiveJwtDecoder(
+                jwt -> Mono.fromCallable(() -> processor.process(jwt, null)));
+        // Add issuer validator
+        OAuth2TokenValidator<Jwt> validator = JwtValidators.createDefaultWithIssuer(issuerUri);
+        decoder.setJwtValidator(validator);
+        return decoder;
+    }
+    /**
+     * Decodes and validates the JWT token with the decoder of its issuer's realm.
+     * A token verified before is answered from the cache.
+     *
+     * @param token JWT token string
+     * @return Mono emitting the decoded JWT, or a JwtException if the token is invalid in all realms
+     */
+    @Override
+    public Mono<Jwt> decode(String token) throws JwtException {
+        Jwt cached = verifiedJwtCache.getIfPresent(token);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        ReactiveJwtDecoder issuerDecoder = decoders.get(MultiRealmJwtDecoder.unverifiedIssuer(token));
+        Mono<Jwt> decoded = issuerDecoder != null ? issuerDecoder.decode(token) : decodeWithAnyRealm(token);
+        return decoded.doOnNext(verifiedJwtCache::put);
+    }
+    /**
+     * Tries each realm in sequence and emits the first successful decode.
+     */
+    private Mono<Jwt> decodeWithAnyRealm(String token) {
+        if (decoders.isEmpty()) {
+            return Mono.error(new JwtException("Unable to decode JWT with any configured realm: No decoders configured"));
+        }
+        List<JwtException> exceptions = new ArrayList<>();
+        Mono<Jwt> result = Mono.empty();
+        // Chain each decoder as the fallback of the previous one
+        for (ReactiveJwtDecoder decoder : decoders.values()) {
+            result = result.switchIfEmpty(Mono.defer(() -> decoder.decode(token))
+                    .doOnNext(jwt -> log.debug("✅ Successfully decoded JWT from issuer: {}", jwt.getIssuer()))
+                    .onErrorResume(JwtException.class, e -> {
+                        log.debug("❌ Failed to decode with decoder: {}", e.getMessage());
+                        exceptions.add(e);
+                        return Mono.empty();
+                    }));
+        }
+        return result.switchIfEmpty(Mono.defer(() -> {
+            // If token is expired, emit that specific error
+            for (JwtException e : exceptions) {
+                if (e.getMessage() != null && e.getMessage().contains("expired")) {
+                    log.error("🔴 JWT token has expired");
+                    return Mono.error(e);
+                }
+            }
+            log.error("🔴 Failed to decode JWT with any of the {} configured realm(s)", decoders.size());
+            return Mono.error(new JwtException("Unable to decode JWT with any configured realm: " +
+                    exceptions.get(0).getMessage(), exceptions.get(0)));
+        }));
+    }
+}
@@ -0,0 +1,81 @@
+package com.ride.clientbff.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
+import org.springframework.security.oauth2.server.resource.authentication.ReactiveJwtAuthenticationConverterAdapter;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+
+/**
+ * Security Configuration for Client BFF Service on the reactive (WebFlux) stack
+ * Used with search.execution-mode=REACTIVE and spring.main.web-application-type=reactive,
+ * mirrors {@link SecurityConfig} with non-blocking multi-realm JWT decoding
+ */
+@Configuration
+@EnableWebFluxSecurity
+@EnableReactiveMethodSecurity
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveSecurityConfig {
+
+    @Value("${keycloak.user-realm.issuer-uri:http://57.128.201.210:8083/realms/user-authentication}")
+    private String userRealmIssuerUri;
+
+    @Value("${keycloak.service-realm.issuer-uri:http://57.128.201.210:8083/realms/service-authentication}")
+    private String serviceRealmIssuerUri;
+
+    private final VerifiedJwtCache verifiedJwtCache;
+    private final RealmKeySets realmKeySets;
+
+    public ReactiveSecurityConfig(VerifiedJwtCache verifiedJwtCache, RealmKeySets realmKeySets) {
+        this.verifiedJwtCache = verifiedJwtCache;
+        this.realmKeySets = realmKeySets;
+    }
+
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+        http
+                .csrf(ServerHttpSecurity.CsrfSpec::disable)
+                .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+                .authorizeExchange(exchanges -> exchanges
+                        .pathMatchers(SecurityConfig.PUBLIC_ENDPOINTS).permitAll()
+                        // All client-bff endpoints require CUSTOMER role
+                        .anyExchange().hasAnyRole("CUSTOMER", "ADMIN", "SERVICE")
+                )
+                .oauth2ResourceServer(oauth2 -> oauth2
+                        .jwt(jwt -> jwt
+                                .jwtDecoder(reactiveMultiRealmJwtDecoder())
+                                .jwtAuthenticationConverter(
+                                        new ReactiveJwtAuthenticationConverterAdapter(jwtAuthenticationConverter()))
+                        )
+                );
+
+        return http.build();
+    }
+
+    /**
+     * Non-blocking multi-realm JWT decoder supporting both user and service authentication realms
+     */
+    @Bean
+    public ReactiveJwtDecoder reactiveMultiRealmJwtDecoder() {
+        return new ReactiveMultiRealmJwtDecoder(userRealmIssuerUri, serviceRealmIssuerUri, verifiedJwtCache,
+                realmKeySets);
+    }
+
+    /**
+     * JWT Authentication Converter extracts roles from both realm_access and resource_access claims
+     */
+    @Bean
+    public JwtAuthenticationConverter jwtAuthenticationConverter() {
+        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
+        converter.setJwtGrantedAuthoritiesConverter(
+                verifiedJwtCache.cachingAuthorities(new KeycloakGrantedAuthoritiesConverter()));
+        return converter;
+    }
+}
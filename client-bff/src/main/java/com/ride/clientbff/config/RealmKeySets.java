@@ -0,0 +1,342 @@
+package com.ride.clientbff.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import com.nimbusds.jwt.proc.JWTProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.retry.Retry;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Signing keys of the Keycloak realms, discovered in the background.
+ * <p>
+ * Building a decoder no longer fetches the OpenID metadata and JWKS while the
+ * bean is created. Each realm runs discovery and the JWKS fetch in the
+ * background, retrying until it succeeds, so a pod starts without waiting for
+ * Keycloak.
+ * <p>
+ * With {@code security.jwt.jwks.cache-dir} set, each realm also starts from the
+ * keys it last saved there, so a pod can serve while Keycloak is unreachable.
+ * Saved keys decide which tokens verify, so they are only trusted when the
+ * directory and the file are owned by the service user, are not symbolic links
+ * and are not writable by group or others. The directory is created with
+ * owner-only permissions. There is no default: a shared location such as the
+ * temp directory would let any local user plant signing keys. The keys are fetched again every
+ * {@code security.jwt.jwks.refresh-interval}. A token signed with an unknown
+ * key id also triggers a fetch, at most once per
+ * {@code security.jwt.jwks.min-refresh-interval}, to pick up rotated keys.
+ * <p>
+ * Until a realm has keys, its tokens are rejected and {@link JwksHealthIndicator}
+ * keeps the readiness probe down.
+ * <p>
+ * Metrics: security.jwks.refresh timer, tagged realm issuer and
+ * outcome=success|failure.
+ */
+@Component
+@Slf4j
+public class RealmKeySets implements DisposableBean {
+
+    private final WebClient webClient;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Path cacheDir;
+    private final Duration refreshInterval;
+    private final Duration minRefreshInterval;
+
+    private final Map<String, RealmKeySet> keySets = new ConcurrentHashMap<>();
+    private final Scheduler refreshScheduler = Schedulers.newSingle("jwks-refresh", true);
+
+    public RealmKeySets(
+            WebClient.Builder webClientBuilder,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${security.jwt.jwks.cache-dir:}") String cacheDir,
+            @Value("${security.jwt.jwks.refresh-interval:10m}") Duration refreshInterval,
+            @Value("${security.jwt.jwks.min-refresh-interval:30s}") Duration minRefreshInterval) {
+        this.webClient = webClientBuilder.build();
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.cacheDir = cacheDir.isBlank() ? null : Path.of(cacheDir);
+        this.refreshInterval = refreshInterval;
+        this.minRefreshInterval = minRefreshInterval;
+        log.info("JWKS discovery configured: cacheDir={}, refreshInterval={}",
+                this.cacheDir != null ? this.cacheDir : "disabled", refreshInterval);
+    }
+
+    /**
+     * Creates a JWT processor verifying signatures with the keys of a realm. The
+     * realm's keys are loaded from disk and discovered in the background on
+     * first use. Claims are not checked here; the decoder's validators do that.
+     *
+     * @param issuerUri Keycloak realm issuer URI
+     * @return processor for the realm's tokens
+     */
+    public JWTProcessor<SecurityContext> jwtProcessor(String issuerUri) {
+        Set<JWSAlgorithm> algorithms = new HashSet<>(JWSAlgorithm.Family.RSA);
+        algorithms.addAll(JWSAlgorithm.Family.EC);
+
+        DefaultJWTProcessor<SecurityContext> processor = new DefaultJWTProcessor<>();
+        processor.setJWSKeySelector(new JWSVerificationKeySelector<>(algorithms, keySet(issuerUri)));
+        processor.setJWTClaimsSetVerifier((claims, context) -> { });
+        return processor;
+    }
+
+    /**
+     * Whether every realm in use has signing keys.
+     *
+     * @return issuer URI to whether its keys are loaded
+     */
+    public Map<String, Boolean> loaded() {
+        Map<String, Boolean> loaded = new LinkedHashMap<>();
+        keySets.forEach((issuer, keySet) -> loaded.put(issuer, keySet.jwkSet != null));
+        return loaded;
+    }
+
+    @Override
+    public void destroy() {
+        keySets.values().forEach(RealmKeySet::stop);
+        refreshScheduler.dispose();
+    }
+
+    private RealmKeySet keySet(String issuerUri) {
+        return keySets.computeIfAbsent(issuerUri, issuer -> {
+            RealmKeySet keySet = new RealmKeySet(issuer);
+            keySet.start();
+            return keySet;
+        });
+    }
+
+    /**
+     * Signing keys of one realm, as a Nimbus key source.
+     */
+    private final class RealmKeySet implements JWKSource<SecurityContext> {
+
+        private final String issuerUri;
+        private final Path cacheFile;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+        private volatile JWKSet jwkSet;
+        private volatile long lastRefreshNanos;
+        private Disposable initialFetch;
+        private Disposable periodicRefresh;
+
+        private RealmKeySet(String issuerUri) {
+            this.issuerUri = issuerUri;
+            this.cacheFile = cacheDir != null
+                    ? cacheDir.resolve(issuerUri.replaceAll("[^A-Za-z0-9._-]", "_") + ".json")
+                    : null;
+        }
+
+        private void start() {
+            loadFromDisk();
+            initialFetch = fetch()
+                    // Another fetch in flight: retry unless that one already loaded keys
+                    .switchIfEmpty(Mono.defer(() -> jwkSet != null
+                            ? Mono.just(jwkSet)
+                            : Mono.error(new IllegalStateException("Signing keys of " + issuerUri + " not loaded yet"))))
+                    .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)))
+                    .subscribe(keys -> { }, error -> { });
+            periodicRefresh = refreshScheduler.schedulePeriodically(this::refresh,
+                    refreshInterval.toMillis(), refreshInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        private void stop() {
+            if (initialFetch != null) {
+                initialFetch.dispose();
+            }
+            if (periodicRefresh != null) {
+                periodicRefresh.dispose();
+            }
+        }
+
+        @Override
+        public List<JWK> get(JWKSelector selector, SecurityContext context) throws KeySourceException {
+            JWKSet keys = jwkSet;
+            if (keys == null) {
+                refreshIfDue();
+                throw new KeySourceException("Signing keys of " + issuerUri + " are not loaded yet");
+            }
+            List<JWK> matches = selector.select(keys);
+            if (matches.isEmpty()) {
+                // Unknown key id, most likely a rotated key
+                refreshIfDue();
+            }
+            return matches;
+        }
+
+        private void refreshIfDue() {
+            if (System.nanoTime() - lastRefreshNanos >= minRefreshInterval.toNanos()) {
+                refresh();
+            }
+        }
+
+        private void refresh() {
+            fetch().subscribe(keys -> { }, error -> { });
+        }
+
+        /**
+         * Discovers the JWKS URI and fetches the key set; one fetch at a time.
+         */
+        private Mono<JWKSet> fetch() {
+            return Mono.defer(() -> {
+                if (!refreshing.compareAndSet(false, true)) {
+                    return Mono.empty();
+                }
+                lastRefreshNanos = System.nanoTime();
+                long start = System.nanoTime();
+                return webClient.get()
+                        .uri(issuerUri + "/.well-known/openid-configuration")
+                        .retrieve()
+                        .bodyToMono(JsonNode.class)
+                        .map(metadata -> metadata.path("jwks_uri").asText())
+                        .filter(jwksUri -> !jwksUri.isBlank())
+                        .switchIfEmpty(Mono.error(() -> new IllegalStateException("No jwks_uri in metadata of " + issuerUri)))
+                        .flatMap(jwksUri -> webClient.get()
+                                .uri(jwksUri)
+                                .retrieve()
+                                .bodyToMono(String.class)
+                                .map(body -> new FetchedKeys(jwksUri, body)))
+                        .publishOn(Schedulers.boundedElastic())
+                        .map(fetched -> {
+                            JWKSet keys = parse(fetched.jwks());
+                            jwkSet = keys;
+                            saveToDisk(fetched);
+                            return keys;
+                        })
+                        .doOnSuccess(keys -> {
+                            record("success", start);
+                            log.debug("Loaded {} signing key(s) of {}", keys.size(), issuerUri);
+                        })
+                        .doOnError(error -> {
+                            record("failure", start);
+                            log.warn("Failed to fetch signing keys of {}: {}", issuerUri, error.getMessage());
+                        })
+                        .doFinally(signal -> refreshing.set(false));
+            });
+        }
+
+        private void loadFromDisk() {
+            if (cacheFile == null || !Files.exists(cacheFile, LinkOption.NOFOLLOW_LINKS)) {
+                return;
+            }
+            try {
+                if (!isTrusted(cacheDir) || !isTrusted(cacheFile)) {
+                    log.warn("Ignoring saved signing keys {}: not owned by the service user or writable by others",
+                            cacheFile);
+                    return;
+                }
+                JsonNode saved = objectMapper.readTree(cacheFile.toFile());
+                jwkSet = parse(saved.path("jwks").toString());
+                log.info("Loaded saved signing keys of {} from {}", issuerUri, cacheFile);
+            } catch (Exception e) {
+                log.warn("Ignoring unreadable saved signing keys {}: {}", cacheFile, e.getMessage());
+            }
+        }
+
+        private void saveToDisk(FetchedKeys fetched) {
+            if (cacheFile == null) {
+                return;
+            }
+            try {
+                ObjectNode saved = objectMapper.createObjectNode();
+                saved.put("issuer", issuerUri);
+                saved.put("jwks_uri", fetched.jwksUri());
+                saved.set("jwks", objectMapper.readTree(fetched.jwks()));
+                if (!Files.exists(cacheDir, LinkOption.NOFOLLOW_LINKS)) {
+                    Files.createDirectories(cacheDir,
+                            PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rwx------")));
+                }
+                if (!isTrusted(cacheDir)) {
+                    log.warn("Not saving signing keys of {}: {} is not owned by the service user or writable by others",
+                            issuerUri, cacheDir);
+                    return;
+                }
+                // Created with owner-only permissions
+                Path temp = Files.createTempFile(cacheDir, "jwks", ".tmp");
+                Files.writeString(temp, objectMapper.writeValueAsString(saved), StandardCharsets.UTF_8);
+                Files.move(temp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException | UnsupportedOperationException e) {
+                log.warn("Failed to save signing keys of {} to {}: {}", issuerUri, cacheFile, e.getMessage());
+            }
+        }
+
+        private JWKSet parse(String jwks) {
+            try {
+                return JWKSet.parse(jwks);
+            } catch (java.text.ParseException e) {
+                throw new IllegalStateException("Invalid JWKS for " + issuerUri, e);
+            }
+        }
+
+        private void record(String outcome, long startNanos) {
+            Timer.builder("security.jwks.refresh")
+                    .description("OpenID discovery and JWKS fetch of a Keycloak realm")
+                    .tag("realm", issuerUri)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Whether a saved-keys path can be trusted: owned by the service user, not a
+     * symbolic link, and not writable by group or others. Paths on file systems
+     * without POSIX attributes are never trusted.
+     */
+    static boolean isTrusted(Path path) throws IOException {
+        PosixFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(path, PosixFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (UnsupportedOperationException e) {
+            return false;
+        }
+        UserPrincipal serviceUser = path.getFileSystem().getUserPrincipalLookupService()
+                .lookupPrincipalByName(System.getProperty("user.name"));
+        Set<PosixFilePermission> permissions = attributes.permissions();
+        return !attributes.isSymbolicLink()
+                && attributes.owner().equals(serviceUser)
+                && !permissions.contains(PosixFilePermission.GROUP_WRITE)
+                && !permissions.contains(PosixFilePermission.OTHERS_WRITE);
+    }
+
+    private record FetchedKeys(String jwksUri, String jwks) {
+    }
+}
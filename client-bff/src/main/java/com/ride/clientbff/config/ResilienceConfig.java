@@ -0,0 +1,53 @@
+package com.ride.clientbff.config;
+
+import com.ride.clientbff.service.support.DownstreamGuard;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.common.bulkhead.configuration.BulkheadConfigCustomizer;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Per-service resilience guards for the downstream services of the search path.
+ * Instances are configured under resilience4j.* in application.yml.
+ * <p>
+ * The pricing-service bulkhead is sized here rather than in application.yml:
+ * a search holds up to {@code search.pricing.max-concurrency} pricing calls at
+ * once when pricing is not batched (a batched search holds one per bulk
+ * request), so the bulkhead admits that many calls for each of
+ * {@code search.pricing.expected-concurrent-searches} searches. A smaller
+ * bulkhead rejects calls of searches that are well within the expected load,
+ * and the vehicles of a rejected call are only priced if indexed prices exist.
+ */
+@Configuration
+@Slf4j
+public class ResilienceConfig {
+
+    @Bean
+    public BulkheadConfigCustomizer pricingServiceBulkheadCustomizer(
+            @Value("${search.pricing.max-concurrency:16}") int pricingConcurrency,
+            @Value("${search.pricing.expected-concurrent-searches:8}") int expectedConcurrentSearches) {
+        int maxConcurrentCalls = pricingConcurrency * expectedConcurrentSearches;
+        log.info("Pricing Service bulkhead: maxConcurrentCalls={} ({} calls x {} searches)",
+                maxConcurrentCalls, pricingConcurrency, expectedConcurrentSearches);
+        return BulkheadConfigCustomizer.of("pricing-service",
+                builder -> builder.maxConcurrentCalls(maxConcurrentCalls));
+    }
+
+    @Bean
+    public DownstreamGuard pricingServiceGuard(CircuitBreakerRegistry circuitBreakerRegistry,
+                                               BulkheadRegistry bulkheadRegistry,
+                                               TimeLimiterRegistry timeLimiterRegistry) {
+        return DownstreamGuard.of("pricing-service", circuitBreakerRegistry, bulkheadRegistry, timeLimiterRegistry);
+    }
+
+    @Bean
+    public DownstreamGuard vehicleServiceGuard(CircuitBreakerRegistry circuitBreakerRegistry,
+                                               BulkheadRegistry bulkheadRegistry,
+                                               TimeLimiterRegistry timeLimiterRegistry) {
+        return DownstreamGuard.of("vehicle-service", circuitBreakerRegistry, bulkheadRegistry, timeLimiterRegistry);
+    }
+}
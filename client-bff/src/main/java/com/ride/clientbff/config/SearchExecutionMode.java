@@ -0,0 +1,21 @@
+package com.ride.clientbff.config;
+
+/**
+ * Execution mode for the search endpoints, selected with
+ * {@code search.execution-mode}.
+ */
+public enum SearchExecutionMode {
+
+    /**
+     * Search services run on the request thread and block on downstream calls.
+     * Combine with {@code spring.threads.virtual.enabled=true} to run the request
+     * thread, and therefore every blocking call, on a virtual thread.
+     */
+    BLOCKING,
+
+    /**
+     * Search endpoints return Mono/Flux end to end and no request thread waits
+     * on downstream calls.
+     */
+    REACTIVE
+}
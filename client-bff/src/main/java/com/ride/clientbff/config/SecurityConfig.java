@@ -1,6 +1,7 @@
 package com.ride.clientbff.config;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -8,18 +9,15 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.*;
 import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.web.SecurityFilterChain;
 
-import java.util.*;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
-
 /**
  * Security Configuration for Client BFF Service
  * Supports dual JWT authentication from both user-authentication and service-authentication realms
+ * Active when the application runs as a servlet web application; see
+ * {@link ReactiveSecurityConfig} for the reactive stack
  *
  * @author Ride Platform Team
  * @version 1.0.0
@@ -28,6 +26,7 @@ import java.util.stream.Stream;
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity(prePostEnabled = true)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class SecurityConfig {
 
     @Value("${keycloak.user-realm.issuer-uri:http://57.128.201.210:8083/realms/user-authentication}")
@@ -36,7 +35,15 @@ public class SecurityConfig {
     @Value("${keycloak.service-realm.issuer-uri:http://57.128.201.210:8083/realms/service-authentication}")
     private String serviceRealmIssuerUri;
 
-    private static final String[] PUBLIC_ENDPOINTS = {
+    private final VerifiedJwtCache verifiedJwtCache;
+    private final RealmKeySets realmKeySets;
+
+    public SecurityConfig(VerifiedJwtCache verifiedJwtCache, RealmKeySets realmKeySets) {
+        this.verifiedJwtCache = verifiedJwtCache;
+        this.realmKeySets = realmKeySets;
+    }
+
+    static final String[] PUBLIC_ENDPOINTS = {
             "/actuator/health",
             "/actuator/info",
             "/v3/api-docs/**",
@@ -71,60 +78,24 @@ public class SecurityConfig {
     }
 
     /**
-     * Multi-realm JWT decoder supporting both user and service authentication realms
+     * Multi-realm JWT decoder supporting both user and service authentication realms,
+     * routed by the token's issuer
      */
     @Bean
     public JwtDecoder multiRealmJwtDecoder() {
-        NimbusJwtDecoder userRealmDecoder = NimbusJwtDecoder.withIssuerLocation(userRealmIssuerUri).build();
-        NimbusJwtDecoder serviceRealmDecoder = NimbusJwtDecoder.withIssuerLocation(serviceRealmIssuerUri).build();
-
-        return token -> {
-            try {
-                return userRealmDecoder.decode(token);
-            } catch (JwtException userRealmException) {
-                try {
-                    return serviceRealmDecoder.decode(token);
-                } catch (JwtException serviceRealmException) {
-                    throw new JwtException("Token validation failed for both realms", serviceRealmException);
-                }
-            }
-        };
+        return new MultiRealmJwtDecoder(new MultiJwtProps(userRealmIssuerUri, serviceRealmIssuerUri),
+                verifiedJwtCache, realmKeySets);
     }
 
     /**
-     * JWT Authentication Converter extracts roles from both realm_access and resource_access claims
+     * JWT Authentication Converter extracts roles from both realm_access and resource_access claims,
+     * computed once per verified token
      */
     @Bean
     public JwtAuthenticationConverter jwtAuthenticationConverter() {
         JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
-        converter.setJwtGrantedAuthoritiesConverter(jwt -> {
-            // Extract realm roles
-            Map<String, Object> realmAccess = jwt.getClaimAsMap("realm_access");
-            List<String> realmRoles = realmAccess != null && realmAccess.get("roles") != null
-                    ? (List<String>) realmAccess.get("roles")
-                    : Collections.emptyList();
-
-            // Extract resource/client roles
-            Map<String, Object> resourceAccess = jwt.getClaimAsMap("resource_access");
-            List<String> resourceRoles = new ArrayList<>();
-            if (resourceAccess != null) {
-                resourceAccess.values().forEach(resource -> {
-                    if (resource instanceof Map) {
-                        Map<String, Object> resourceMap = (Map<String, Object>) resource;
-                        List<String> roles = (List<String>) resourceMap.get("roles");
-                        if (roles != null) {
-                            resourceRoles.addAll(roles);
-                        }
-                    }
-                });
-            }
-
-            // Combine and convert to Spring authorities
-            return Stream.concat(realmRoles.stream(), resourceRoles.stream())
-                    .distinct()
-                    .map(role -> new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()))
-                    .collect(Collectors.toList());
-        });
+        converter.setJwtGrantedAuthoritiesConverter(
+                verifiedJwtCache.cachingAuthorities(new KeycloakGrantedAuthoritiesConverter()));
         return converter;
     }
 }
@@ -0,0 +1,144 @@
+package com.ride.clientbff.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Bounded cache of bearer tokens that already passed signature and claim
+ * validation, shared by the servlet and reactive multi-realm decoders.
+ * <p>
+ * Entries are keyed by the SHA-256 of the token, so raw tokens are never held
+ * as keys, and expire at the token's {@code exp}. Tokens without {@code exp}
+ * are not cached. A repeated bearer token skips RSA verification and, through
+ * {@link #cachingAuthorities(Converter)}, the Keycloak role extraction.
+ * <p>
+ * Metrics: cache.* tagged cache=verified-jwt.
+ */
+@Component
+@Slf4j
+public class VerifiedJwtCache {
+
+    private final Cache<String, VerifiedJwt> cache;
+
+    public VerifiedJwtCache(
+            MeterRegistry meterRegistry,
+            @Value("${security.jwt.verified-cache.max-size:10000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "verified-jwt", List.of());
+        log.info("Verified JWT cache configured: maxSize={}", maxSize);
+    }
+
+    /**
+     * Returns the verified JWT for a bearer token, if it was verified before and
+     * has not expired.
+     *
+     * @param token raw bearer token
+     * @return the verified JWT, or null if the token must be verified
+     */
+    public Jwt getIfPresent(String token) {
+        VerifiedJwt verified = cache.getIfPresent(hash(token));
+        return verified != null ? verified.jwt : null;
+    }
+
+    /**
+     * Caches a JWT that passed verification, until its expiry.
+     *
+     * @param jwt the verified JWT
+     */
+    public void put(Jwt jwt) {
+        Instant expiresAt = jwt.getExpiresAt();
+        if (expiresAt == null || !expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        cache.put(hash(jwt.getTokenValue()), new VerifiedJwt(jwt));
+    }
+
+    /**
+     * Wraps an authorities converter so the authorities of a cached token are
+     * computed once.
+     *
+     * @param delegate converter extracting the authorities from the claims
+     * @return converter answering from the cache for verified tokens
+     */
+    public Converter<Jwt, Collection<GrantedAuthority>> cachingAuthorities(
+            Converter<Jwt, Collection<GrantedAuthority>> delegate) {
+        return jwt -> {
+            VerifiedJwt verified = cache.getIfPresent(hash(jwt.getTokenValue()));
+            if (verified == null) {
+                return delegate.convert(jwt);
+            }
+            Collection<GrantedAuthority> authorities = verified.authorities;
+            if (authorities == null) {
+                authorities = List.copyOf(delegate.convert(jwt));
+                verified.authorities = authorities;
+            }
+            return authorities;
+        };
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * A verified token with the authorities derived from it, once converted.
+     */
+    private static final class VerifiedJwt {
+
+        private final Jwt jwt;
+        private volatile Collection<GrantedAuthority> authorities;
+
+        private VerifiedJwt(Jwt jwt) {
+            this.jwt = jwt;
+        }
+    }
+
+    /**
+     * Expires each entry at its token's exp claim.
+     */
+    private static final class UntilTokenExpiry implements Expiry<String, VerifiedJwt> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedJwt value, long currentTime) {
+            Duration remaining = Duration.between(Instant.now(), value.jwt.getExpiresAt());
+            return Math.max(0, remaining.toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedJwt value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedJwt value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
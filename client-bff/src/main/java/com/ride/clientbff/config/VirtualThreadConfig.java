@@ -0,0 +1,40 @@
+package com.ride.clientbff.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Thread configuration for blocking search calls.
+ * <p>
+ * With {@code spring.threads.virtual.enabled=true}, Tomcat handles requests on
+ * virtual threads, so the blocking vehicle, pricing and Elasticsearch calls of the
+ * BLOCKING search mode no longer hold a platform thread while they wait. Blocking
+ * work offloaded from reactive pipelines runs on virtual threads too.
+ */
+@Configuration
+@Slf4j
+public class VirtualThreadConfig {
+
+    /**
+     * Scheduler for blocking calls made from reactive pipelines, such as
+     * ElasticsearchOperations.search.
+     *
+     * @param virtualThreadsEnabled whether virtual threads are enabled
+     * @return virtual-thread-per-task scheduler, or bounded elastic on platform threads
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler blockingCallScheduler(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreadsEnabled) {
+        if (virtualThreadsEnabled) {
+            log.info("Blocking search calls will run on virtual threads");
+            return Schedulers.fromExecutorService(Executors.newVirtualThreadPerTaskExecutor(), "search-virtual");
+        }
+        return Schedulers.boundedElastic();
+    }
+}
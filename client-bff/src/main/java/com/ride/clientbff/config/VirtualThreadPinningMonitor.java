@@ -0,0 +1,82 @@
+package com.ride.clientbff.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+
+/**
+ * Detects and reports virtual threads pinned to their carrier thread.
+ * <p>
+ * Listens to the JFR {@code jdk.VirtualThreadPinned} event, which fires when a
+ * virtual thread blocks while it cannot unmount (for example inside a
+ * synchronized block). Each event longer than
+ * {@code search.virtual-threads.pinning-threshold} is logged with the top of
+ * its stack and counted in {@code jvm.threads.virtual.pinned}.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+@Slf4j
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final int STACK_DEPTH = 8;
+
+    private final Duration threshold;
+    private final Counter pinnedCounter;
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(
+            MeterRegistry meterRegistry,
+            @Value("${search.virtual-threads.pinning-threshold:20ms}") Duration threshold) {
+        this.threshold = threshold;
+        this.pinnedCounter = Counter.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads pinned to their carrier thread longer than the threshold")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable("jdk.VirtualThreadPinned")
+                .withThreshold(threshold)
+                .withStackTrace();
+        recordingStream.onEvent("jdk.VirtualThreadPinned", this::report);
+        recordingStream.startAsync();
+        log.info("Virtual thread pinning monitor started (threshold: {})", threshold);
+    }
+
+    private void report(RecordedEvent event) {
+        pinnedCounter.increment();
+        String stack = event.getStackTrace() == null ? "unavailable" : event.getStackTrace().getFrames().stream()
+                .limit(STACK_DEPTH)
+                .map(RecordedFrame::getMethod)
+                .map(method -> method.getType().getName() + "." + method.getName())
+                .collect(Collectors.joining(" <- "));
+        log.warn("Virtual thread pinned for {} ms on {}: {}",
+                event.getDuration().toMillis(),
+                event.getThread() != null ? event.getThread().getJavaName() : "unknown thread",
+                stack);
+    }
+
+    @Override
+    public void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+            recordingStream = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return recordingStream != null;
+    }
+}
@@ -1,7 +1,11 @@
 package com.ride.clientbff.config;
 
+import com.ride.clientbff.service.support.HedgePolicy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
@@ -14,6 +18,8 @@ import java.time.Duration;
 /**
  * WebClient configuration for Client BFF external service integrations.
  * Configures WebClients for Vehicle Service and Pricing Service APIs.
+ * Reads are hedged against another instance when hedging is enabled
+ * ({@link HedgingExchangeFilter}).
  */
 @Configuration
 @Slf4j
@@ -25,14 +31,24 @@ public class WebClientConfig {
     @Value("${services.pricingServiceUrl:http://pricing-service:8082}")
     private String pricingServiceUrl;
 
+    @Value("${services.vehicle-service-id:vehicle-service}")
+    private String vehicleServiceId;
+
+    @Value("${services.pricing-service-id:pricing-service}")
+    private String pricingServiceId;
+
     /**
      * Creates a WebClient bean for Vehicle Service API calls.
      *
-     * @param builder WebClient builder
+     * @param builder         WebClient builder
+     * @param hedgePolicy     hedging policy for vehicle service reads
+     * @param discoveryClient discovery client used to pick the hedge instance
      * @return configured WebClient for vehicle service
      */
     @Bean(name = "vehicleServiceWebClient")
-    public WebClient vehicleServiceWebClient(WebClient.Builder builder) {
+    public WebClient vehicleServiceWebClient(WebClient.Builder builder,
+                                             @Qualifier("vehicleServiceHedgePolicy") HedgePolicy hedgePolicy,
+                                             ObjectProvider<DiscoveryClient> discoveryClient) {
         log.info("Configuring WebClient for Vehicle Service at: {}", vehicleServiceUrl);
 
         HttpClient httpClient = createHttpClient();
@@ -40,6 +56,7 @@ public class WebClientConfig {
         return builder
                 .baseUrl(vehicleServiceUrl)
                 .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(new HedgingExchangeFilter(vehicleServiceId, hedgePolicy, discoveryClient))
                 .defaultHeader("Content-Type", "application/json")
                 .defaultHeader("Accept", "application/json")
                 .build();
@@ -48,11 +65,15 @@ public class WebClientConfig {
     /**
      * Creates a WebClient bean for Pricing Service API calls.
      *
-     * @param builder WebClient builder
+     * @param builder         WebClient builder
+     * @param hedgePolicy     hedging policy for pricing service reads
+     * @param discoveryClient discovery client used to pick the hedge instance
      * @return configured WebClient for pricing service
      */
     @Bean(name = "pricingServiceWebClient")
-    public WebClient pricingServiceWebClient(WebClient.Builder builder) {
+    public WebClient pricingServiceWebClient(WebClient.Builder builder,
+                                             @Qualifier("pricingServiceHedgePolicy") HedgePolicy hedgePolicy,
+                                             ObjectProvider<DiscoveryClient> discoveryClient) {
         log.info("Configuring WebClient for Pricing Service at: {}", pricingServiceUrl);
 
         HttpClient httpClient = createHttpClient();
@@ -60,6 +81,7 @@ public class WebClientConfig {
         return builder
                 .baseUrl(pricingServiceUrl)
                 .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(new HedgingExchangeFilter(pricingServiceId, hedgePolicy, discoveryClient))
                 .defaultHeader("Content-Type", "application/json")
                 .defaultHeader("Accept", "application/json")
                 .build();
@@ -1,14 +1,19 @@
 package com.ride.clientbff.controller;
 
+import com.ride.clientbff.config.SearchExecutionMode;
 import com.ride.clientbff.dto.AdvancedVehicleSearchRequestDto;
 import com.ride.clientbff.dto.PaginatedVehicleSearchResponseDto;
+import com.ride.clientbff.dto.VehicleMapClustersResponseDto;
+import com.ride.clientbff.dto.VehicleMapSearchRequestDto;
 import com.ride.clientbff.service.IAdvancedVehicleSearchService;
 import com.ride.clientbff.service.IElasticsearchVehicleService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 import java.util.List;
 
@@ -27,6 +32,13 @@ public class AdvancedVehicleSearchController {
     private final IAdvancedVehicleSearchService advancedVehicleSearchService;
     private final IElasticsearchVehicleService elasticsearchService;
 
+    /**
+     * BLOCKING runs the search on the request thread; REACTIVE keeps the request
+     * non-blocking end to end.
+     */
+    @Value("${search.execution-mode:BLOCKING}")
+    private SearchExecutionMode executionMode;
+
     /**
      * Searches for available vehicles with advanced filters and pagination.
      * <p>
@@ -38,13 +50,18 @@ public class AdvancedVehicleSearchController {
      * - dropOffTime: End time of rental
      * - pageNumber: Page number (0-indexed, optional, default: 0)
      * - pageSize: Items per page (optional, default: 10)
-     * - sortBy: Sort field - "pricePerDay", "location", "bodyType" (optional,
-     * default: "pricePerDay")
+     * - sortBy: Sort field - "pricePerDay", "location", "bodyType", "distance"
+     * (optional, default: "pricePerDay"; "distance" requires latitude/longitude)
      * - sortDirection: "ASC" or "DESC" (optional, default: "ASC")
      * - bodyTypeFilter: Filter by body type (optional)
      * - minPrice: Minimum price filter (optional)
      * - maxPrice: Maximum price filter (optional)
      * - userLocation: User's location for prioritizing nearby vehicles (optional)
+     * - useCursor: Start cursor pagination for infinite scroll (optional, default: false)
+     * - cursor: nextCursor from the previous response; continues from that page
+     * (optional)
+     * - includeFacets: Return body type, transmission, fuel type, seats, location
+     * and price facets from the same search (optional, default: false)
      * <p>
      * Response includes:
      * - Paginated list of vehicles
@@ -52,13 +69,15 @@ public class AdvancedVehicleSearchController {
      * - Filters applied
      * - User location vehicles prioritized first
      * - Pagination metadata (total pages, current page, etc.)
+     * - nextCursor for the next page in cursor pagination (null on the last page)
+     * - facets when requested; each facet respects every other active filter
      *
      * @param searchRequest the advanced vehicle search criteria with pagination and
      *                      filters
-     * @return ResponseEntity with paginated vehicles and pricing information
+     * @return Mono emitting the ResponseEntity with paginated vehicles and pricing information
      */
     @PostMapping("/vehicles")
-    public ResponseEntity<PaginatedVehicleSearchResponseDto> searchWithAdvancedFilters(
+    public Mono<ResponseEntity<PaginatedVehicleSearchResponseDto>> searchWithAdvancedFilters(
             @RequestBody AdvancedVehicleSearchRequestDto searchRequest) {
 
         log.info("Received advanced search request for location: {}, page: {}, size: {}",
@@ -66,27 +85,91 @@ public class AdvancedVehicleSearchController {
                 searchRequest.getPageNumber(),
                 searchRequest.getPageSize());
 
-        try {
-            PaginatedVehicleSearchResponseDto response = elasticsearchService
-                    .searchVehicles(searchRequest);
-
-            if (response.isSuccess()) {
-                log.info("Advanced search completed successfully. Found {} vehicles",
-                        response.getTotalElements());
-                return ResponseEntity.ok(response);
-            } else {
-                log.warn("Advanced search completed with no results: {}", response.getMessage());
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
-            }
-        } catch (Exception e) {
-            log.error("Error processing advanced search: {}", e.getMessage(), e);
-
-            PaginatedVehicleSearchResponseDto errorResponse = PaginatedVehicleSearchResponseDto.builder()
-                    .success(false)
-                    .message("Error processing search: " + e.getMessage())
-                    .build();
-
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
-        }
+        Mono<PaginatedVehicleSearchResponseDto> response = executionMode == SearchExecutionMode.REACTIVE
+                ? elasticsearchService.searchVehiclesReactive(searchRequest)
+                : Mono.fromCallable(() -> elasticsearchService.searchVehicles(searchRequest));
+
+        return response
+                .map(result -> {
+                    if (result.isSuccess()) {
+                        log.info("Advanced search completed successfully. Found {} vehicles",
+                                result.getTotalElements());
+                        return ResponseEntity.ok(result);
+                    } else {
+                        log.warn("Advanced search completed with no results: {}", result.getMessage());
+                        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(result);
+                    }
+                })
+                .onErrorResume(IllegalArgumentException.class, e -> {
+                    log.warn("Invalid advanced search request: {}", e.getMessage());
+
+                    PaginatedVehicleSearchResponseDto errorResponse = PaginatedVehicleSearchResponseDto.builder()
+                            .success(false)
+                            .message("Invalid search criteria: " + e.getMessage())
+                            .build();
+
+                    return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse));
+                })
+                .onErrorResume(e -> {
+                    log.error("Error processing advanced search: {}", e.getMessage(), e);
+
+                    PaginatedVehicleSearchResponseDto errorResponse = PaginatedVehicleSearchResponseDto.builder()
+                            .success(false)
+                            .message("Error processing search: " + e.getMessage())
+                            .build();
+
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse));
+                });
+    }
+
+    /**
+     * Returns vehicle clusters for the map view instead of individual vehicles.
+     * <p>
+     * Request body takes the advanced search filters plus:
+     * - topLeftLatitude, topLeftLongitude: Top-left corner of the visible map area
+     * - bottomRightLatitude, bottomRightLongitude: Bottom-right corner of the visible
+     * map area
+     * - zoom: Map zoom level (0-29, optional, default: 10)
+     * <p>
+     * Response includes one cluster per non-empty map tile with its vehicle count,
+     * pin position (centroid) and lowest daily price.
+     *
+     * @param mapRequest the map search criteria
+     * @return Mono emitting the ResponseEntity with vehicle clusters
+     */
+    @PostMapping("/vehicles/map")
+    public Mono<ResponseEntity<VehicleMapClustersResponseDto>> searchVehicleClusters(
+            @RequestBody VehicleMapSearchRequestDto mapRequest) {
+
+        log.info("Received map search request for zoom: {}", mapRequest.getZoom());
+
+        Mono<VehicleMapClustersResponseDto> response = executionMode == SearchExecutionMode.REACTIVE
+                ? elasticsearchService.searchVehicleClustersReactive(mapRequest)
+                : Mono.fromCallable(() -> elasticsearchService.searchVehicleClusters(mapRequest));
+
+        return response
+                .map(ResponseEntity::ok)
+                .onErrorResume(IllegalArgumentException.class, e -> {
+                    log.warn("Invalid map search request: {}", e.getMessage());
+
+                    VehicleMapClustersResponseDto errorResponse = VehicleMapClustersResponseDto.builder()
+                            .clusters(List.of())
+                            .success(false)
+                            .message("Invalid search criteria: " + e.getMessage())
+                            .build();
+
+                    return Mono.just(ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse));
+                })
+                .onErrorResume(e -> {
+                    log.error("Error processing map search: {}", e.getMessage(), e);
+
+                    VehicleMapClustersResponseDto errorResponse = VehicleMapClustersResponseDto.builder()
+                            .clusters(List.of())
+                            .success(false)
+                            .message("Error processing search: " + e.getMessage())
+                            .build();
+
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse));
+                });
     }
 }
@@ -1,13 +1,22 @@
 package com.ride.clientbff.controller;
 
+import com.ride.clientbff.config.SearchExecutionMode;
 import com.ride.clientbff.dto.VehicleSearchRequestDto;
 import com.ride.clientbff.dto.VehicleSearchResponseDto;
+import com.ride.clientbff.dto.VehicleSearchStreamEventDto;
 import com.ride.clientbff.service.IVehicleSearchService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * REST Controller for vehicle search endpoints.
@@ -21,6 +30,13 @@ public class VehicleSearchController {
 
     private final IVehicleSearchService vehicleSearchService;
 
+    /**
+     * BLOCKING runs the search on the request thread; REACTIVE keeps the request
+     * non-blocking end to end.
+     */
+    @Value("${search.execution-mode:BLOCKING}")
+    private SearchExecutionMode executionMode;
+
     /**
      * Searches for available vehicles based on pickup location, date range, and time.
      * <p>
@@ -38,10 +54,10 @@ public class VehicleSearchController {
      * - Vehicle details (body type, location, etc.)
      *
      * @param searchRequest the vehicle search criteria
-     * @return ResponseEntity with available vehicles and pricing information
+     * @return Mono emitting the ResponseEntity with available vehicles and pricing information
      */
     @PostMapping("/vehicles")
-    public ResponseEntity<VehicleSearchResponseDto> searchVehicles(
+    public Mono<ResponseEntity<VehicleSearchResponseDto>> searchVehicles(
             @RequestBody VehicleSearchRequestDto searchRequest) {
 
         log.info("Received vehicle search request for location: {}, from {} to {}",
@@ -49,25 +65,110 @@ public class VehicleSearchController {
                 searchRequest.getPickupDate(),
                 searchRequest.getDropOffDate());
 
-        try {
-            VehicleSearchResponseDto response = vehicleSearchService.searchAvailableVehicles(searchRequest);
-
-            if (response.isSuccess()) {
-                log.info("Search completed successfully. Found {} vehicles", response.getTotalVehicles());
-                return ResponseEntity.ok(response);
-            } else {
-                log.warn("Search completed with no results: {}", response.getMessage());
-                return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
-            }
-        } catch (Exception e) {
-            log.error("Error processing vehicle search: {}", e.getMessage(), e);
-
-            VehicleSearchResponseDto errorResponse = VehicleSearchResponseDto.builder()
-                    .success(false)
-                    .message("Error processing search: " + e.getMessage())
-                    .build();
-
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
-        }
+        Mono<VehicleSearchResponseDto> response = executionMode == SearchExecutionMode.REACTIVE
+                ? vehicleSearchService.searchAvailableVehiclesReactive(searchRequest)
+                : Mono.fromCallable(() -> vehicleSearchService.searchAvailableVehicles(searchRequest));
+
+        return response
+                .map(result -> {
+                    if (result.isSuccess()) {
+                        log.info("Search completed successfully. Found {} vehicles", result.getTotalVehicles());
+                        return ResponseEntity.ok(result);
+                    } else {
+                        log.warn("Search completed with no results: {}", result.getMessage());
+                        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(result);
+                    }
+                })
+                .onErrorResume(e -> {
+                    log.error("Error processing vehicle search: {}", e.getMessage(), e);
+
+                    VehicleSearchResponseDto errorResponse = VehicleSearchResponseDto.builder()
+                            .success(false)
+                            .message("Error processing search: " + e.getMessage())
+                            .build();
+
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse));
+                });
+    }
+
+    /**
+     * Streams available vehicles as newline-delimited JSON.
+     * <p>
+     * Each line is a {@link VehicleSearchStreamEventDto}: one "vehicle" record per
+     * vehicle as soon as it is priced, followed by a final "summary" record.
+     *
+     * @param searchRequest the vehicle search criteria
+     * @return Flux of stream records
+     */
+    @PostMapping(value = "/vehicles/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<VehicleSearchStreamEventDto> streamVehicles(
+            @RequestBody VehicleSearchRequestDto searchRequest) {
+
+        log.info("Received streaming vehicle search request for location: {}, from {} to {}",
+                searchRequest.getPickupLocation(),
+                searchRequest.getPickupDate(),
+                searchRequest.getDropOffDate());
+
+        return buildEventStream(searchRequest);
+    }
+
+    /**
+     * Streams available vehicles as Server-Sent Events.
+     * <p>
+     * Same records as the NDJSON stream; the SSE event name is the record type
+     * ("vehicle" or "summary").
+     *
+     * @param searchRequest the vehicle search criteria
+     * @return Flux of server-sent events
+     */
+    @PostMapping(value = "/vehicles/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<VehicleSearchStreamEventDto>> streamVehiclesAsEvents(
+            @RequestBody VehicleSearchRequestDto searchRequest) {
+
+        log.info("Received SSE vehicle search request for location: {}, from {} to {}",
+                searchRequest.getPickupLocation(),
+                searchRequest.getPickupDate(),
+                searchRequest.getDropOffDate());
+
+        return buildEventStream(searchRequest)
+                .map(event -> ServerSentEvent.builder(event)
+                        .event(event.getType())
+                        .build());
+    }
+
+    /**
+     * Maps streamed vehicles to stream records and appends the summary record.
+     * Errors end the stream with an unsuccessful summary record.
+     *
+     * @param searchRequest the vehicle search criteria
+     * @return Flux of stream records
+     */
+    private Flux<VehicleSearchStreamEventDto> buildEventStream(VehicleSearchRequestDto searchRequest) {
+        return Flux.defer(() -> {
+            AtomicInteger vehicleCount = new AtomicInteger();
+
+            return vehicleSearchService.streamAvailableVehicles(searchRequest)
+                    .doOnNext(vehicle -> vehicleCount.incrementAndGet())
+                    .map(VehicleSearchStreamEventDto::ofVehicle)
+                    .concatWith(Mono.fromSupplier(() -> {
+                        int total = vehicleCount.get();
+                        log.info("Streaming search completed. Sent {} vehicles", total);
+                        return VehicleSearchStreamEventDto.ofSummary(VehicleSearchResponseDto.builder()
+                                .totalVehicles(total)
+                                .success(total > 0)
+                                .message(total > 0
+                                        ? "Found " + total + " available vehicles"
+                                        : "No vehicles available for the selected criteria")
+                                .build());
+                    }))
+                    .onErrorResume(e -> {
+                        log.error("Error processing streaming vehicle search: {}", e.getMessage(), e);
+                        return Mono.just(VehicleSearchStreamEventDto.ofSummary(VehicleSearchResponseDto.builder()
+                                .totalVehicles(vehicleCount.get())
+                                .success(false)
+                                .message("Error processing search: " + e.getMessage())
+                                .build()));
+                    });
+        });
     }
 }
@@ -0,0 +1,62 @@
+package com.ride.clientbff.controller;
+
+import com.ride.clientbff.config.SearchExecutionMode;
+import com.ride.clientbff.dto.VehicleSuggestResponseDto;
+import com.ride.clientbff.service.IVehicleSuggestService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * REST Controller for typeahead suggestions.
+ * Suggests locations, makes and models while the user types, so the full
+ * vehicle search runs only once the user commits a query.
+ */
+@RestController
+@RequestMapping("/api/v1/client/search/suggest")
+@RequiredArgsConstructor
+@Slf4j
+public class VehicleSuggestController {
+
+    private final IVehicleSuggestService vehicleSuggestService;
+
+    /**
+     * BLOCKING runs the lookup on the request thread; REACTIVE keeps the request
+     * non-blocking end to end.
+     */
+    @Value("${search.execution-mode:BLOCKING}")
+    private SearchExecutionMode executionMode;
+
+    /**
+     * Suggests locations, makes and models for a typed prefix.
+     * <p>
+     * Prefixes shorter than the configured minimum (default: 2 characters) return
+     * no suggestions.
+     *
+     * @param prefix text typed so far (e.g., "Colom")
+     * @param limit  maximum number of suggestions per field (optional, default: 5, max: 20)
+     * @return Mono emitting the ResponseEntity with suggestions per field
+     */
+    @GetMapping
+    public Mono<ResponseEntity<VehicleSuggestResponseDto>> suggest(
+            @RequestParam("q") String prefix,
+            @RequestParam(value = "limit", defaultValue = "5") int limit) {
+
+        log.debug("Received suggest request for prefix: {}", prefix);
+
+        Mono<VehicleSuggestResponseDto> response = executionMode == SearchExecutionMode.REACTIVE
+                ? vehicleSuggestService.suggestReactive(prefix, limit)
+                : Mono.fromCallable(() -> vehicleSuggestService.suggest(prefix, limit));
+
+        return response
+                .map(ResponseEntity::ok)
+                .onErrorResume(e -> {
+                    log.error("Error processing suggest request: {}", e.getMessage(), e);
+                    return Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build());
+                });
+    }
+}
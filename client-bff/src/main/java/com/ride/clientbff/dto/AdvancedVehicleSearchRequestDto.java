@@ -25,7 +25,9 @@ public class AdvancedVehicleSearchRequestDto extends VehicleSearchRequestDto {
     private Integer pageSize = 10;
 
     /**
-     * Sort field (e.g., "pricePerDay", "location", "bodyType").
+     * Sort field (e.g., "pricePerDay", "location", "bodyType", "distance", "totalCost").
+     * "distance" sorts by distance from latitude/longitude, which are then required.
+     * "totalCost" sorts by the total for the rental period, which then requires both dates.
      */
     private String sortBy = "pricePerDay";
 
@@ -71,4 +73,24 @@ public class AdvancedVehicleSearchRequestDto extends VehicleSearchRequestDto {
      */
     @Builder.Default
     private Double radiusKm = 50.0;
+
+    /**
+     * Opaque cursor from a previous response's nextCursor (optional).
+     * When present, the search continues from the page the cursor points to and
+     * pageNumber is ignored.
+     */
+    private String cursor;
+
+    /**
+     * Starts cursor pagination on the first request (optional, default: false).
+     * The response then carries a nextCursor that keeps the cost of every further
+     * page constant, however deep. Ignored when cursor is present.
+     */
+    private Boolean useCursor;
+
+    /**
+     * Returns filter facets (body type, transmission, fuel type, seats, location
+     * and price distribution) with the results (optional, default: false).
+     */
+    private Boolean includeFacets;
 }
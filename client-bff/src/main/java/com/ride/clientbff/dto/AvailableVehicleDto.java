@@ -17,6 +17,17 @@ import java.util.UUID;
 @Builder
 public class AvailableVehicleDto {
 
+    /**
+     * Price source: prices fetched from the Pricing Service.
+     */
+    public static final String PRICE_SOURCE_LIVE = "LIVE";
+
+    /**
+     * Price source: prices read from the search index, which may lag the
+     * Pricing Service.
+     */
+    public static final String PRICE_SOURCE_INDEXED = "INDEXED";
+
     /**
      * OwnersHasVehicle ID (primary identifier for pricing).
      * This is the ID returned from Vehicle Service when registering a vehicle to an
@@ -65,6 +76,12 @@ public class AvailableVehicleDto {
      */
     private String location;
 
+    /**
+     * Distance in kilometers from the user's latitude/longitude, or null if the
+     * search had no user position.
+     */
+    private Double distanceKm;
+
     /**
      * Vehicle availability start date.
      */
@@ -105,4 +122,10 @@ public class AvailableVehicleDto {
      * Number of rental days for the search period.
      */
     private int rentalDays;
+
+    /**
+     * Where the prices come from: {@value #PRICE_SOURCE_LIVE} or
+     * {@value #PRICE_SOURCE_INDEXED}.
+     */
+    private String priceSource;
 }
@@ -0,0 +1,25 @@
+package com.ride.clientbff.dto;
+
+import lombok.*;
+
+/**
+ * DTO for one facet value and the number of matching vehicles.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class FacetBucketDto {
+
+    /**
+     * Facet value (e.g., "SUV", "AUTOMATIC", "5"), or the lower bound of a
+     * price histogram bucket.
+     */
+    private String value;
+
+    /**
+     * Number of vehicles with this value.
+     */
+    private long count;
+}
@@ -0,0 +1,40 @@
+package com.ride.clientbff.dto;
+
+import lombok.*;
+
+/**
+ * DTO for one cluster of vehicles on the map.
+ * A cluster holds every matching vehicle in one map tile.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class MapClusterDto {
+
+    /**
+     * Map tile key in "zoom/x/y" format.
+     */
+    private String tile;
+
+    /**
+     * Number of vehicles in the tile.
+     */
+    private long count;
+
+    /**
+     * Latitude of the centroid of the vehicles in the tile (pin position).
+     */
+    private double latitude;
+
+    /**
+     * Longitude of the centroid of the vehicles in the tile (pin position).
+     */
+    private double longitude;
+
+    /**
+     * Lowest daily price in the tile, or null if unknown.
+     */
+    private Double minPricePerDay;
+}
@@ -59,4 +59,14 @@ public class PaginatedVehicleSearchResponseDto {
      * Response message.
      */
     private String message;
+
+    /**
+     * Opaque cursor for the next page, or null if this is the last page.
+     */
+    private String nextCursor;
+
+    /**
+     * Filter facets for the search, or null unless requested with includeFacets.
+     */
+    private VehicleSearchFacetsDto facets;
 }
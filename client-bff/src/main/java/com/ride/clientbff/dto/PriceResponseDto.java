@@ -13,6 +13,12 @@ import lombok.*;
 @Builder
 public class PriceResponseDto {
 
+    /**
+     * Vehicle ID (OwnersHasVehicle ID) the pricing belongs to.
+     * Populated by bulk lookups so results can be matched to requests.
+     */
+    private String vehicleId;
+
     /**
      * Price range details (daily, weekly, monthly prices).
      */
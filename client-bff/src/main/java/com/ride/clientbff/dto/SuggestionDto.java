@@ -0,0 +1,29 @@
+package com.ride.clientbff.dto;
+
+import lombok.*;
+
+/**
+ * DTO for one typeahead suggestion.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class SuggestionDto {
+
+    /**
+     * Suggested value, as indexed (e.g., "Colombo", "Toyota", "Camry").
+     */
+    private String text;
+
+    /**
+     * Field the value belongs to: "location", "make" or "model".
+     */
+    private String field;
+
+    /**
+     * Number of available vehicles with this value.
+     */
+    private long count;
+}
@@ -0,0 +1,42 @@
+package com.ride.clientbff.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * DTO for a map view search response.
+ * Contains vehicle clusters for the requested bounding box and zoom level.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class VehicleMapClustersResponseDto {
+
+    /**
+     * Vehicle clusters, one per non-empty map tile.
+     */
+    private List<MapClusterDto> clusters;
+
+    /**
+     * Total number of matching vehicles in the bounding box.
+     */
+    private long totalElements;
+
+    /**
+     * Zoom level the clusters were computed for.
+     */
+    private int zoom;
+
+    /**
+     * Whether search was successful.
+     */
+    private boolean success;
+
+    /**
+     * Response message.
+     */
+    private String message;
+}
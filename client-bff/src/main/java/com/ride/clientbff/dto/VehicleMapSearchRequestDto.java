@@ -0,0 +1,44 @@
+package com.ride.clientbff.dto;
+
+import lombok.*;
+import lombok.experimental.SuperBuilder;
+
+/**
+ * DTO for a map view search.
+ * Uses the advanced search filters, restricted to the visible bounding box, and
+ * returns vehicle clusters for the zoom level instead of individual vehicles.
+ * Pagination and sorting fields are ignored.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@SuperBuilder
+public class VehicleMapSearchRequestDto extends AdvancedVehicleSearchRequestDto {
+
+    /**
+     * Latitude of the top-left corner of the visible map area.
+     */
+    private Double topLeftLatitude;
+
+    /**
+     * Longitude of the top-left corner of the visible map area.
+     */
+    private Double topLeftLongitude;
+
+    /**
+     * Latitude of the bottom-right corner of the visible map area.
+     */
+    private Double bottomRightLatitude;
+
+    /**
+     * Longitude of the bottom-right corner of the visible map area.
+     */
+    private Double bottomRightLongitude;
+
+    /**
+     * Map zoom level (0-29); vehicles are clustered per map tile at this zoom.
+     */
+    @Builder.Default
+    private Integer zoom = 10;
+}
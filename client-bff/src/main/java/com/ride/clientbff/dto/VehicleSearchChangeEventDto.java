@@ -0,0 +1,31 @@
+package com.ride.clientbff.dto;
+
+import com.ride.clientbff.repository.elasticsearch.VehiclesSearchDocument;
+import lombok.*;
+
+/**
+ * DTO for a change to a 'vehicle_search' document, published by vehicle-service
+ * after it writes the index.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class VehicleSearchChangeEventDto {
+
+    /**
+     * Change type: "UPSERT" or "DELETE".
+     */
+    private String action;
+
+    /**
+     * Document ID (OwnerHasVehicle ID).
+     */
+    private String id;
+
+    /**
+     * The document as indexed, for UPSERT events.
+     */
+    private VehiclesSearchDocument document;
+}
@@ -0,0 +1,58 @@
+package com.ride.clientbff.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * DTO for the filter facets of a vehicle search.
+ * Each facet counts vehicles matching every other active filter, so selecting
+ * a value does not hide the alternatives in the same facet.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class VehicleSearchFacetsDto {
+
+    /**
+     * Vehicle counts per body type.
+     */
+    private List<FacetBucketDto> bodyTypes;
+
+    /**
+     * Vehicle counts per transmission.
+     */
+    private List<FacetBucketDto> transmissions;
+
+    /**
+     * Vehicle counts per fuel type.
+     */
+    private List<FacetBucketDto> fuelTypes;
+
+    /**
+     * Vehicle counts per number of seats.
+     */
+    private List<FacetBucketDto> seats;
+
+    /**
+     * Vehicle counts per location.
+     */
+    private List<FacetBucketDto> locations;
+
+    /**
+     * Vehicle counts per daily price bucket, keyed by the bucket's lower bound.
+     */
+    private List<FacetBucketDto> priceHistogram;
+
+    /**
+     * Lowest daily price, or null if no vehicle matches.
+     */
+    private Double minPrice;
+
+    /**
+     * Highest daily price, or null if no vehicle matches.
+     */
+    private Double maxPrice;
+}
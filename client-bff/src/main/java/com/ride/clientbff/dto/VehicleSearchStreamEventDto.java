@@ -0,0 +1,50 @@
+package com.ride.clientbff.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+/**
+ * DTO for a single record of a streamed vehicle search response.
+ * A stream carries one "vehicle" record per priced vehicle, followed by a
+ * final "summary" record.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class VehicleSearchStreamEventDto {
+
+    public static final String TYPE_VEHICLE = "vehicle";
+    public static final String TYPE_SUMMARY = "summary";
+
+    /**
+     * Record type: "vehicle" or "summary".
+     */
+    private String type;
+
+    /**
+     * Priced vehicle (set on "vehicle" records).
+     */
+    private AvailableVehicleDto vehicle;
+
+    /**
+     * Search summary without the vehicle list (set on the final "summary" record).
+     */
+    private VehicleSearchResponseDto summary;
+
+    public static VehicleSearchStreamEventDto ofVehicle(AvailableVehicleDto vehicle) {
+        return VehicleSearchStreamEventDto.builder()
+                .type(TYPE_VEHICLE)
+                .vehicle(vehicle)
+                .build();
+    }
+
+    public static VehicleSearchStreamEventDto ofSummary(VehicleSearchResponseDto summary) {
+        return VehicleSearchStreamEventDto.builder()
+                .type(TYPE_SUMMARY)
+                .summary(summary)
+                .build();
+    }
+}
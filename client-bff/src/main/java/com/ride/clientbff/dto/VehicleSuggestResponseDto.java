@@ -0,0 +1,37 @@
+package com.ride.clientbff.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * DTO for typeahead suggestions.
+ * Contains location, make and model suggestions for a typed prefix.
+ */
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class VehicleSuggestResponseDto {
+
+    /**
+     * The prefix the suggestions are for, trimmed and in lower case.
+     */
+    private String prefix;
+
+    /**
+     * Location suggestions, most vehicles first.
+     */
+    private List<SuggestionDto> locations;
+
+    /**
+     * Make suggestions, most vehicles first.
+     */
+    private List<SuggestionDto> makes;
+
+    /**
+     * Model suggestions, most vehicles first.
+     */
+    private List<SuggestionDto> models;
+}
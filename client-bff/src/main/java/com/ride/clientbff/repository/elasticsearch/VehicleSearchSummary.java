@@ -0,0 +1,80 @@
+package com.ride.clientbff.repository.elasticsearch;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.elasticsearch.annotations.*;
+
+import java.time.LocalDate;
+
+/**
+ * Read-only projection of the 'vehicle_search' index for search result lists.
+ * Holds only the fields a search hit is mapped to, so queries can fetch a
+ * filtered _source instead of the full {@link VehiclesSearchDocument}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(toBuilder = true)
+@Document(indexName = "vehicle_search", createIndex = false)
+public class VehicleSearchSummary {
+
+        /**
+         * _source fields fetched for a search hit.
+         */
+        public static final String[] SOURCE_INCLUDES = {
+                        "vehicleId", "make", "model", "year", "bodyType", "pricePerDay",
+                        "availableFrom", "availableUntil", "locationGeo" };
+
+        /**
+         * Script field returning the first entry of 'images', so the rest of the
+         * list is never sent to or deserialized by the BFF.
+         */
+        public static final String FIRST_IMAGE_FIELD = "firstImage";
+
+        public static final String FIRST_IMAGE_SCRIPT =
+                        "def images = params['_source']['images']; "
+                                        + "return images == null || images.isEmpty() ? null : images[0];";
+
+        @Id
+        private String id;
+
+        @MultiField(mainField = @Field(type = FieldType.Text), otherFields = {
+                        @InnerField(suffix = "keyword", type = FieldType.Keyword) })
+        private String make;
+
+        @MultiField(mainField = @Field(type = FieldType.Text), otherFields = {
+                        @InnerField(suffix = "keyword", type = FieldType.Keyword) })
+        private String model;
+
+        @Field(type = FieldType.Keyword)
+        private String year;
+
+        @Field(type = FieldType.Keyword)
+        private String vehicleId;
+
+        @Field(type = FieldType.Keyword)
+        private String bodyType;
+
+        @Field(type = FieldType.Double)
+        private Double pricePerDay;
+
+        @Field(type = FieldType.Date, format = DateFormat.date)
+        private LocalDate availableFrom;
+
+        @Field(type = FieldType.Date, format = DateFormat.date)
+        private LocalDate availableUntil;
+
+        @Field(type = FieldType.Auto)
+        private org.springframework.data.elasticsearch.core.geo.GeoPoint locationGeo;
+
+        @ScriptedField
+        private String firstImage;
+
+        /**
+         * Total cost for the requested rental period, set only when the search has
+         * pickup and drop-off dates.
+         */
+        @ScriptedField
+        private Double totalCost;
+}
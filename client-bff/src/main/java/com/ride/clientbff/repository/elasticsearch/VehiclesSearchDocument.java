@@ -24,11 +24,13 @@ public class VehiclesSearchDocument {
         private String id;
 
         @MultiField(mainField = @Field(type = FieldType.Text), otherFields = {
-                        @InnerField(suffix = "keyword", type = FieldType.Keyword) })
+                        @InnerField(suffix = "keyword", type = FieldType.Keyword),
+                        @InnerField(suffix = "suggest", type = FieldType.Search_As_You_Type) })
         private String make;
 
         @MultiField(mainField = @Field(type = FieldType.Text), otherFields = {
-                        @InnerField(suffix = "keyword", type = FieldType.Keyword) })
+                        @InnerField(suffix = "keyword", type = FieldType.Keyword),
+                        @InnerField(suffix = "suggest", type = FieldType.Search_As_You_Type) })
         private String model;
 
         @Field(type = FieldType.Keyword)
@@ -100,10 +102,11 @@ public class VehiclesSearchDocument {
         @Field(type = FieldType.Keyword)
         private String bodyType;
 
-        @Field(type = FieldType.Keyword)
+        // Availability window, range-filtered against the requested rental period
+        @Field(type = FieldType.Date, format = DateFormat.date)
         private LocalDate availableFrom;
 
-        @Field(type = FieldType.Keyword)
+        @Field(type = FieldType.Date, format = DateFormat.date)
         private LocalDate availableUntil;
 
         @Field(type = FieldType.Boolean)
@@ -123,8 +126,10 @@ public class VehiclesSearchDocument {
         private String updateReason;
 
         // Location (City/Area e.g., "Colombo", "Katunayake")
+        // "suggest" backs the typeahead endpoint
         @MultiField(mainField = @Field(type = FieldType.Text), otherFields = {
-                        @InnerField(suffix = "keyword", type = FieldType.Keyword) })
+                        @InnerField(suffix = "keyword", type = FieldType.Keyword),
+                        @InnerField(suffix = "suggest", type = FieldType.Search_As_You_Type) })
         private String location;
 
         @Field(type = FieldType.Auto)
@@ -2,6 +2,9 @@ package com.ride.clientbff.service;
 
 import com.ride.clientbff.dto.AdvancedVehicleSearchRequestDto;
 import com.ride.clientbff.dto.PaginatedVehicleSearchResponseDto;
+import com.ride.clientbff.dto.VehicleMapClustersResponseDto;
+import com.ride.clientbff.dto.VehicleMapSearchRequestDto;
+import reactor.core.publisher.Mono;
 
 /**
  * Interface for Elasticsearch Vehicle Service.
@@ -16,4 +19,28 @@ public interface IElasticsearchVehicleService {
      * @return paginated search results
      */
     PaginatedVehicleSearchResponseDto searchVehicles(AdvancedVehicleSearchRequestDto searchRequest);
+
+    /**
+     * Non-blocking variant of {@link #searchVehicles(AdvancedVehicleSearchRequestDto)}.
+     *
+     * @param searchRequest the search criteria
+     * @return Mono emitting the paginated search results
+     */
+    Mono<PaginatedVehicleSearchResponseDto> searchVehiclesReactive(AdvancedVehicleSearchRequestDto searchRequest);
+
+    /**
+     * Counts matching vehicles per map tile for the map view.
+     *
+     * @param mapRequest the search criteria with bounding box and zoom level
+     * @return vehicle clusters for the visible area
+     */
+    VehicleMapClustersResponseDto searchVehicleClusters(VehicleMapSearchRequestDto mapRequest);
+
+    /**
+     * Non-blocking variant of {@link #searchVehicleClusters(VehicleMapSearchRequestDto)}.
+     *
+     * @param mapRequest the search criteria with bounding box and zoom level
+     * @return Mono emitting the vehicle clusters
+     */
+    Mono<VehicleMapClustersResponseDto> searchVehicleClustersReactive(VehicleMapSearchRequestDto mapRequest);
 }
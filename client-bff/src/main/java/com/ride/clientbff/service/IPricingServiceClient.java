@@ -3,6 +3,9 @@ package com.ride.clientbff.service;
 import com.ride.clientbff.dto.AvailableVehicleDto;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+import java.util.Map;
+
 /**
  * Interface for Pricing Service Client.
  * Provides methods to interact with the Pricing Service API.
@@ -16,7 +19,20 @@ public interface IPricingServiceClient {
      * because each owner-vehicle pair has its own pricing configuration.
      *
      * @param ownerHasVehicleId the OwnersHasVehicle ID (used as vehicleId in pricing service)
-     * @return Mono emitting the AvailableVehicleDto with pricing information populated
+     * @return Mono emitting the AvailableVehicleDto with pricing information populated,
+     *         empty if the vehicle has no pricing configured
      */
     Mono<AvailableVehicleDto> getPricingForVehicle(String ownerHasVehicleId);
+
+    /**
+     * Retrieves pricing information for several vehicles in one bulk lookup.
+     * <p>
+     * Lookups from concurrent callers are collected for a short window and
+     * merged, so duplicate IDs are fetched once per window.
+     *
+     * @param ownerHasVehicleIds the OwnersHasVehicle IDs to price
+     * @return Mono emitting priced vehicles keyed by OwnersHasVehicle ID;
+     *         IDs without pricing are absent from the map
+     */
+    Mono<Map<String, AvailableVehicleDto>> getPricingForVehicles(Collection<String> ownerHasVehicleIds);
 }
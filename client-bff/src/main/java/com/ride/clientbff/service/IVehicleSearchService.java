@@ -1,7 +1,10 @@
 package com.ride.clientbff.service;
 
+import com.ride.clientbff.dto.AvailableVehicleDto;
 import com.ride.clientbff.dto.VehicleSearchRequestDto;
 import com.ride.clientbff.dto.VehicleSearchResponseDto;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 /**
  * Interface for Vehicle Search Service.
@@ -27,4 +30,26 @@ public interface IVehicleSearchService {
      * @return VehicleSearchResponseDto containing list of available vehicles with pricing
      */
     VehicleSearchResponseDto searchAvailableVehicles(VehicleSearchRequestDto searchRequest);
+
+    /**
+     * Non-blocking variant of {@link #searchAvailableVehicles(VehicleSearchRequestDto)}.
+     *
+     * @param searchRequest the vehicle search criteria
+     * @return Mono emitting the search response; never errors, failures are
+     *         reported through an unsuccessful response
+     */
+    Mono<VehicleSearchResponseDto> searchAvailableVehiclesReactive(VehicleSearchRequestDto searchRequest);
+
+    /**
+     * Streams available vehicles as soon as each one is priced.
+     * <p>
+     * Same search as {@link #searchAvailableVehicles(VehicleSearchRequestDto)},
+     * but vehicles are emitted in pricing completion order instead of being
+     * collected into one response. Vehicles whose pricing fails are skipped.
+     *
+     * @param searchRequest the vehicle search criteria
+     * @return Flux emitting priced vehicles; errors with IllegalArgumentException
+     *         if the request is invalid
+     */
+    Flux<AvailableVehicleDto> streamAvailableVehicles(VehicleSearchRequestDto searchRequest);
 }
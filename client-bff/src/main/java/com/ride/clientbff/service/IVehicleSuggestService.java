@@ -0,0 +1,29 @@
+package com.ride.clientbff.service;
+
+import com.ride.clientbff.dto.VehicleSuggestResponseDto;
+import reactor.core.publisher.Mono;
+
+/**
+ * Interface for the typeahead suggest service.
+ * Provides location, make and model suggestions for a typed prefix.
+ */
+public interface IVehicleSuggestService {
+
+    /**
+     * Suggests locations, makes and models starting with the given prefix.
+     *
+     * @param prefix text typed so far
+     * @param limit  maximum number of suggestions per field
+     * @return suggestions per field
+     */
+    VehicleSuggestResponseDto suggest(String prefix, int limit);
+
+    /**
+     * Non-blocking variant of {@link #suggest(String, int)}.
+     *
+     * @param prefix text typed so far
+     * @param limit  maximum number of suggestions per field
+     * @return Mono emitting the suggestions per field
+     */
+    Mono<VehicleSuggestResponseDto> suggestReactive(String prefix, int limit);
+}
@@ -1,46 +1,78 @@
 package com.ride.clientbff.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
+import com.ride.clientbff.service.support.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.jspecify.annotations.NonNull;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Disposable;
 import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
 import reactor.util.retry.Retry;
 
 import java.time.Duration;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Service for obtaining and managing service-to-service authentication tokens
  * using Keycloak client credentials flow
+ * <p>
+ * The token is fetched when the application is ready and renewed in the
+ * background at a random point between 70% and 80% of its lifetime, so callers
+ * are answered from the cache. A token request only happens on a caller's path
+ * when there is no valid token at all (startup failed or renewals kept
+ * failing), and concurrent callers then share one in-flight request.
+ * <p>
+ * Metrics: service.token.refresh timer, tagged trigger=background|on-demand and
+ * outcome=success|failure.
  */
 @Service
 @Slf4j
-public class ServiceTokenService {
+public class ServiceTokenService implements DisposableBean {
+
+    private static final double RENEW_AT_MIN = 0.70;
+    private static final double RENEW_AT_MAX = 0.80;
+    private static final Duration RENEW_RETRY_DELAY = Duration.ofSeconds(5);
 
     private final WebClient webClient;
     private final String tokenUrl;
     private final String clientId;
     private final String clientSecret;
+    private final MeterRegistry meterRegistry;
 
     // Token cache: key = clientId, value = TokenInfo
     private final ConcurrentHashMap<String, TokenInfo> tokenCache = new ConcurrentHashMap<>();
 
+    private final SingleFlight<String, TokenInfo> tokenRequests;
+    private final Scheduler renewalScheduler = Schedulers.newSingle("service-token-renewal", true);
+    private volatile Disposable scheduledRenewal;
+
     public ServiceTokenService(
             @Qualifier("genericWebClient") WebClient webClient,
             @Value("${keycloak.admin.service-realm.token-url}") String tokenUrl,
             @Value("${keycloak.admin.service-realm.client-id}") String clientId,
-            @Value("${keycloak.admin.service-realm.client-secret}") String clientSecret) {
+            @Value("${keycloak.admin.service-realm.client-secret}") String clientSecret,
+            MeterRegistry meterRegistry) {
         this.webClient = webClient;
         this.tokenUrl = tokenUrl;
         this.clientId = clientId;
         this.clientSecret = clientSecret;
+        this.meterRegistry = meterRegistry;
+        this.tokenRequests = new SingleFlight<>("service-token", meterRegistry);
         log.info("ServiceTokenService initialized with token URL: {}", tokenUrl);
     }
 
@@ -59,16 +91,69 @@ public class ServiceTokenService {
             return Mono.just(cachedToken.token);
         }
 
-        log.info("Requesting new access token for client: {}", clientId);
-        return requestNewToken()
-                .doOnSuccess(token -> log.info("Successfully obtained new access token"))
-                .doOnError(error -> log.error("Failed to obtain access token", error));
+        log.info("No valid token cached, requesting access token for client: {}", clientId);
+        return refreshToken("on-demand")
+                .map(tokenInfo -> tokenInfo.token);
+    }
+
+    /**
+     * Fetches the first token as soon as the application is ready, so the first
+     * searches do not wait for it.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void fetchInitialToken() {
+        refreshToken("background").subscribe(
+                tokenInfo -> log.debug("Initial service token obtained"),
+                error -> log.warn("Initial service token request failed, retrying in {}", RENEW_RETRY_DELAY));
+    }
+
+    /**
+     * Requests a new token through the single in-flight request, caches it and
+     * schedules its renewal.
+     *
+     * @param trigger "background" for renewals, "on-demand" for caller-driven requests
+     * @return Mono emitting the new token
+     */
+    private Mono<TokenInfo> refreshToken(String trigger) {
+        return tokenRequests.executeReactive(clientId, () -> {
+            long start = System.nanoTime();
+            return requestNewToken()
+                    .doOnSuccess(tokenInfo -> {
+                        recordRefresh(trigger, "success", start);
+                        log.info("Successfully obtained new access token");
+                        scheduleRenewal(tokenInfo.renewalDelay());
+                    })
+                    .doOnError(error -> {
+                        recordRefresh(trigger, "failure", start);
+                        log.error("Failed to obtain access token", error);
+                        scheduleRenewal(RENEW_RETRY_DELAY);
+                    });
+        });
+    }
+
+    private void scheduleRenewal(Duration delay) {
+        Disposable previous = scheduledRenewal;
+        if (previous != null) {
+            previous.dispose();
+        }
+        scheduledRenewal = renewalScheduler.schedule(
+                () -> refreshToken("background").subscribe(tokenInfo -> { }, error -> { }),
+                delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    private void recordRefresh(String trigger, String outcome, long startNanos) {
+        Timer.builder("service.token.refresh")
+                .description("Service token requests to the token endpoint")
+                .tag("trigger", trigger)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
     }
 
     /**
      * Request a new token from Keycloak using client credentials flow
      */
-    private @NonNull Mono<String> requestNewToken() {
+    private @NonNull Mono<TokenInfo> requestNewToken() {
         return webClient.post()
                 .uri(tokenUrl)
                 .contentType(MediaType.APPLICATION_FORM_URLENCODED)
@@ -87,9 +172,10 @@ public class ServiceTokenService {
                             : 300; // Default 5 minutes
 
                     // Cache the token
-                    tokenCache.put(clientId, new TokenInfo(token, expiresIn));
+                    TokenInfo tokenInfo = new TokenInfo(token, expiresIn);
+                    tokenCache.put(clientId, tokenInfo);
 
-                    return token;
+                    return tokenInfo;
                 })
                 .onErrorResume(WebClientResponseException.class, ex -> {
                     log.error("Failed to obtain token. Status: {}, Response: {}",
@@ -110,6 +196,10 @@ public class ServiceTokenService {
         log.info("Token cache invalidated for client: {}", clientId);
     }
 
+    @Override
+    public void destroy() {
+        renewalScheduler.dispose();
+    }
 
     /**
      * Inner class to store token information with expiration
@@ -117,13 +207,24 @@ public class ServiceTokenService {
     private static class TokenInfo {
         private final String token;
         private final long expirationTime;
+        private final int expiresInSeconds;
 
         public TokenInfo(String token, int expiresInSeconds) {
             this.token = token;
+            this.expiresInSeconds = expiresInSeconds;
             // Store expiration time in milliseconds
             this.expirationTime = System.currentTimeMillis() + (expiresInSeconds * 1000L);
         }
 
+        /**
+         * Delay until renewal, at a random point between 70% and 80% of the
+         * lifetime so instances do not renew in step
+         */
+        public Duration renewalDelay() {
+            double renewAt = ThreadLocalRandom.current().nextDouble(RENEW_AT_MIN, RENEW_AT_MAX);
+            return Duration.ofMillis((long) (expiresInSeconds * 1000L * renewAt));
+        }
+
         /**
          * Check if token is expired
          * @param bufferSeconds Additional seconds to consider token expired before actual expiration
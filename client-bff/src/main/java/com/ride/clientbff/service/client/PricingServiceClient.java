@@ -24,27 +24,37 @@ public class PricingServiceClient {
 
     /**
      * Get pricing for a specific owner-has-vehicle ID.
+     * Blocks until the response arrives; use {@link #fetchPricing(String)} on
+     * non-blocking paths.
      *
      * @param ownerHasVehicleId the owner-has-vehicle ID
      * @return pricing information
      */
     public PricingDto getPricing(String ownerHasVehicleId) {
         try {
-            log.debug("Fetching pricing for ownerHasVehicleId: {}", ownerHasVehicleId);
-
-            return webClient.get()
-                    .uri(pricingServiceUrl + "/api/v1/pricing/prices/{id}", ownerHasVehicleId)
-                    .retrieve()
-                    .bodyToMono(PricingDto.class)
-                    .doOnError(e -> log.error("Failed to fetch pricing: {}", e.getMessage()))
-                    .block();
-
+            return fetchPricing(ownerHasVehicleId).block();
         } catch (Exception e) {
             log.error("Error fetching pricing for vehicle: {}", ownerHasVehicleId, e);
             return null;
         }
     }
 
+    /**
+     * Get pricing for a specific owner-has-vehicle ID without blocking.
+     *
+     * @param ownerHasVehicleId the owner-has-vehicle ID
+     * @return Mono emitting the pricing information
+     */
+    public Mono<PricingDto> fetchPricing(String ownerHasVehicleId) {
+        log.debug("Fetching pricing for ownerHasVehicleId: {}", ownerHasVehicleId);
+
+        return webClient.get()
+                .uri(pricingServiceUrl + "/api/v1/pricing/prices/{id}", ownerHasVehicleId)
+                .retrieve()
+                .bodyToMono(PricingDto.class)
+                .doOnError(e -> log.error("Failed to fetch pricing: {}", e.getMessage()));
+    }
+
     /**
      * Check if vehicle pricing exists.
      *
@@ -3,37 +3,68 @@ package com.ride.clientbff.service.impl;
 import com.ride.clientbff.dto.AdvancedVehicleSearchRequestDto;
 import com.ride.clientbff.dto.AvailableVehicleDto;
 import com.ride.clientbff.dto.PaginatedVehicleSearchResponseDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.ride.clientbff.service.IAdvancedVehicleSearchService;
 import com.ride.clientbff.service.IVehicleSearchService;
-import lombok.RequiredArgsConstructor;
+import com.ride.clientbff.service.support.SearchCursor;
+import com.ride.clientbff.service.support.SearchQueryKey;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.Comparator;
+import java.time.Duration;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.UUID;
 
 /**
  * Service implementation for advanced vehicle search with pagination and filtering.
  * Handles sorting, filtering, and location-based prioritization.
+ * <p>
+ * The first page of a query stores a snapshot of the top ranked vehicles, keyed
+ * by the query without paging. Later pages of the same query, requested by page
+ * number or by the returned cursor, are sliced from that snapshot instead of
+ * repeating the search and pricing fan-out.
+ *
+ * @see VehicleRankingPipeline
  */
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class AdvancedVehicleSearchService implements IAdvancedVehicleSearchService {
 
     private final IVehicleSearchService vehicleSearchService;
+    private final Cache<SearchQueryKey, ResultSnapshot> snapshots;
+    private final int snapshotMaxResults;
+
+    public AdvancedVehicleSearchService(
+            IVehicleSearchService vehicleSearchService,
+            MeterRegistry meterRegistry,
+            @Value("${search.snapshot.max-entries:1000}") long snapshotMaxEntries,
+            @Value("${search.snapshot.max-results:500}") int snapshotMaxResults,
+            @Value("${search.snapshot.ttl:5m}") Duration snapshotTtl) {
+        this.vehicleSearchService = vehicleSearchService;
+        this.snapshotMaxResults = snapshotMaxResults;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumSize(snapshotMaxEntries)
+                .expireAfterWrite(snapshotTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, snapshots, "search-snapshots", List.of());
+    }
 
     /**
      * Searches vehicles with advanced filters, sorting, and pagination.
      * <p>
      * Process:
-     * 1. Perform basic search to get available vehicles
-     * 2. Apply location prioritization (user location first)
-     * 3. Apply filters (body type, price range)
-     * 4. Apply sorting (by price, location, body type)
-     * 5. Apply pagination
-     * 6. Return paginated results
+     * 1. Resolve the page offset from the cursor, or from the page number
+     * 2. For a later page, serve it from the query's result snapshot if it covers the page
+     * 3. Otherwise perform basic search to get available vehicles
+     * 4. In a single pass, apply filters (body type, price range) and rank with one
+     *    composite order: user location first, then the sort key
+     * 5. Keep the top candidates as the query's new result snapshot
+     * 6. Return paginated results with a cursor for the next page
      *
      * @param searchRequest search criteria with filters and pagination
      * @return paginated vehicle search response
@@ -46,32 +77,45 @@ public class AdvancedVehicleSearchService implements IAdvancedVehicleSearchServi
                 searchRequest.getPickupLocation(), searchRequest.getPageNumber(), searchRequest.getPageSize());
 
         try {
-            // Step 1: Get basic search results
+            // Step 1: Resolve the page offset
+            int pageSize = Math.max(1, searchRequest.getPageSize());
+            SearchCursor cursor = searchRequest.getCursor() == null || searchRequest.getCursor().isBlank()
+                    ? null
+                    : SearchCursor.decode(searchRequest.getCursor());
+            int offset = cursor != null
+                    ? cursor.offset()
+                    : (int) Math.min(Integer.MAX_VALUE, (long) searchRequest.getPageNumber() * pageSize);
+
+            // Step 2: Serve later pages from the snapshot when it covers the page;
+            // a new search (first page, no cursor) always runs and replaces it
+            SearchQueryKey snapshotKey = SearchQueryKey.ofRanking(searchRequest);
+            ResultSnapshot snapshot = cursor == null && offset == 0 ? null : snapshots.getIfPresent(snapshotKey);
+            if (snapshot != null && snapshot.matches(cursor) && snapshot.covers(offset, pageSize)) {
+                log.debug("Serving offset {} from result snapshot {}", offset, snapshot.id());
+                return buildPaginatedResponse(snapshot, offset, pageSize);
+            }
+
+            // Step 3: Get basic search results
             var basicResponse = vehicleSearchService.searchAvailableVehicles(searchRequest);
 
             if (!basicResponse.isSuccess() || basicResponse.getVehicles().isEmpty()) {
                 return buildEmptyPaginatedResponse("No vehicles found for search criteria");
             }
 
-            List<AvailableVehicleDto> vehicles = basicResponse.getVehicles();
-
-            // Step 2: Prioritize by user location (user's location vehicles first)
-            if (searchRequest.getUserLocation() != null && !searchRequest.getUserLocation().isEmpty()) {
-                vehicles = prioritizeByUserLocation(vehicles, searchRequest.getUserLocation());
-                log.debug("Vehicles prioritized by user location: {}", searchRequest.getUserLocation());
-            }
+            // Steps 4-5: Filter and rank in one pass, keeping enough for the snapshot and this page
+            int retained = (int) Math.max(snapshotMaxResults, Math.min(Integer.MAX_VALUE, (long) offset + pageSize));
+            VehicleRankingPipeline.RankedPage ranked =
+                    VehicleRankingPipeline.rank(basicResponse.getVehicles(), searchRequest, 0, retained);
+            log.debug("Ranked {} matching vehicles. Sort field: {}, direction: {}, user location: {}",
+                    ranked.totalElements(), searchRequest.getSortBy(),
+                    searchRequest.getSortDirection(), searchRequest.getUserLocation());
 
-            // Step 3: Apply filters
-            vehicles = applyFilters(vehicles, searchRequest);
-            log.debug("Filters applied. Remaining vehicles: {}", vehicles.size());
+            snapshot = new ResultSnapshot(UUID.randomUUID().toString(), List.copyOf(ranked.vehicles()),
+                    ranked.totalElements());
+            snapshots.put(snapshotKey, snapshot);
 
-            // Step 4: Apply sorting
-            vehicles = applySorting(vehicles, searchRequest);
-            log.debug("Sorting applied. Sort field: {}, direction: {}",
-                    searchRequest.getSortBy(), searchRequest.getSortDirection());
-
-            // Step 5: Apply pagination
-            return applyPagination(vehicles, searchRequest);
+            // Step 6: Build paginated response
+            return buildPaginatedResponse(snapshot, offset, pageSize);
 
         } catch (Exception e) {
             log.error("Error in advanced search: {}", e.getMessage(), e);
@@ -80,106 +124,30 @@ public class AdvancedVehicleSearchService implements IAdvancedVehicleSearchServi
     }
 
     /**
-     * Prioritizes vehicles by user location.
-     * Vehicles from user's location appear first.
-     *
-     * @param vehicles list of vehicles
-     * @param userLocation user's location
-     * @return prioritized list with user location vehicles first
-     */
-    private List<AvailableVehicleDto> prioritizeByUserLocation(
-            List<AvailableVehicleDto> vehicles,
-            String userLocation) {
-
-        List<AvailableVehicleDto> userLocationVehicles = vehicles.stream()
-                .filter(v -> userLocation.equalsIgnoreCase(v.getLocation()))
-                .collect(Collectors.toList());
-
-        List<AvailableVehicleDto> otherVehicles = vehicles.stream()
-                .filter(v -> !userLocation.equalsIgnoreCase(v.getLocation()))
-                .collect(Collectors.toList());
-
-        userLocationVehicles.addAll(otherVehicles);
-        log.debug("Prioritized {} vehicles from user location, {} from other locations",
-                userLocationVehicles.size() - otherVehicles.size(), otherVehicles.size());
-
-        return userLocationVehicles;
-    }
-
-    /**
-     * Applies filters to vehicles list.
+     * Builds the paginated response for one page sliced from a result snapshot.
      *
-     * @param vehicles list of vehicles
-     * @param searchRequest search criteria with filters
-     * @return filtered list
-     */
-    private List<AvailableVehicleDto> applyFilters(
-            List<AvailableVehicleDto> vehicles,
-            AdvancedVehicleSearchRequestDto searchRequest) {
-
-        return vehicles.stream()
-                // Filter by body type
-                .filter(v -> searchRequest.getBodyTypeFilter() == null ||
-                        v.getBodyType().equalsIgnoreCase(searchRequest.getBodyTypeFilter()))
-                // Filter by price range
-                .filter(v -> searchRequest.getMinPrice() == null ||
-                        v.getPricePerDay() >= searchRequest.getMinPrice())
-                .filter(v -> searchRequest.getMaxPrice() == null ||
-                        v.getPricePerDay() <= searchRequest.getMaxPrice())
-                .collect(Collectors.toList());
-    }
-
-    /**
-     * Applies sorting to vehicles list.
-     *
-     * @param vehicles list of vehicles
-     * @param searchRequest search criteria with sort options
-     * @return sorted list
-     */
-    private List<AvailableVehicleDto> applySorting(
-            List<AvailableVehicleDto> vehicles,
-            AdvancedVehicleSearchRequestDto searchRequest) {
-
-        Comparator<AvailableVehicleDto> comparator = switch (searchRequest.getSortBy()) {
-            case "pricePerDay" -> Comparator.comparingDouble(AvailableVehicleDto::getPricePerDay);
-            case "location" -> Comparator.comparing(AvailableVehicleDto::getLocation);
-            case "bodyType" -> Comparator.comparing(AvailableVehicleDto::getBodyType);
-            default -> Comparator.comparingDouble(AvailableVehicleDto::getPricePerDay);
-        };
-
-        if ("DESC".equalsIgnoreCase(searchRequest.getSortDirection())) {
-            comparator = comparator.reversed();
-        }
-
-        return vehicles.stream()
-                .sorted(comparator)
-                .collect(Collectors.toList());
-    }
-
-    /**
-     * Applies pagination to vehicles list.
-     *
-     * @param vehicles list of vehicles
-     * @param searchRequest search criteria with pagination info
+     * @param snapshot ranked vehicles and total matches
+     * @param offset   rank of the first vehicle on the page
+     * @param pageSize page size
      * @return paginated response
      */
-    private PaginatedVehicleSearchResponseDto applyPagination(
-            List<AvailableVehicleDto> vehicles,
-            AdvancedVehicleSearchRequestDto searchRequest) {
+    private PaginatedVehicleSearchResponseDto buildPaginatedResponse(
+            ResultSnapshot snapshot,
+            int offset,
+            int pageSize) {
 
-        int pageNumber = searchRequest.getPageNumber();
-        int pageSize = searchRequest.getPageSize();
+        int pageNumber = offset / pageSize;
 
-        long totalElements = vehicles.size();
+        long totalElements = snapshot.totalElements();
         int totalPages = (int) Math.ceil((double) totalElements / pageSize);
 
-        int startIndex = pageNumber * pageSize;
-        int endIndex = Math.min(startIndex + pageSize, (int) totalElements);
-
-        boolean isFirst = pageNumber == 0;
-        boolean isLast = pageNumber >= totalPages - 1;
+        int pageStart = Math.min(offset, snapshot.vehicles().size());
+        int pageEnd = (int) Math.min(snapshot.vehicles().size(), (long) offset + pageSize);
+        List<AvailableVehicleDto> pageVehicles = snapshot.vehicles().subList(pageStart, pageEnd);
 
-        List<AvailableVehicleDto> pageVehicles = vehicles.subList(startIndex, endIndex);
+        boolean isFirst = offset == 0;
+        boolean isLast = (long) offset + pageSize >= totalElements;
+        String nextCursor = isLast ? null : new SearchCursor(snapshot.id(), offset + pageSize).encode();
 
         return PaginatedVehicleSearchResponseDto.builder()
                 .vehicles(pageVehicles)
@@ -189,6 +157,7 @@ public class AdvancedVehicleSearchService implements IAdvancedVehicleSearchServi
                 .totalPages(totalPages)
                 .first(isFirst)
                 .last(isLast)
+                .nextCursor(nextCursor)
                 .success(true)
                 .message("Found " + totalElements + " vehicles (" + pageVehicles.size() + " on this page)")
                 .build();
@@ -233,4 +202,27 @@ public class AdvancedVehicleSearchService implements IAdvancedVehicleSearchServi
                 .message(message)
                 .build();
     }
+
+    /**
+     * Top ranked vehicles of one query. Holds references to the priced vehicles,
+     * which are treated as read-only once ranked.
+     *
+     * @param id            snapshot id carried in cursors
+     * @param vehicles      top ranked vehicles, in rank order
+     * @param totalElements number of vehicles that passed the filters
+     */
+    private record ResultSnapshot(String id, List<AvailableVehicleDto> vehicles, long totalElements) {
+
+        /**
+         * A cursor from an older snapshot of the same query is not served from
+         * this one, since its offset refers to a different ranking.
+         */
+        boolean matches(SearchCursor cursor) {
+            return cursor == null || id.equals(cursor.snapshotId());
+        }
+
+        boolean covers(int offset, int pageSize) {
+            return vehicles.size() >= totalElements || (long) offset + pageSize <= vehicles.size();
+        }
+    }
 }
@@ -0,0 +1,69 @@
+package com.ride.clientbff.service.impl;
+
+import com.ride.clientbff.dto.AdvancedVehicleSearchRequestDto;
+import com.ride.clientbff.dto.PaginatedVehicleSearchResponseDto;
+import com.ride.clientbff.dto.VehicleMapClustersResponseDto;
+import com.ride.clientbff.dto.VehicleMapSearchRequestDto;
+import com.ride.clientbff.service.IElasticsearchVehicleService;
+import com.ride.clientbff.service.support.SearchQueryKey;
+import com.ride.clientbff.service.support.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Coalescing layer in front of {@link ElasticsearchVehicleService}.
+ * <p>
+ * Concurrent searches with the same canonical key (including filters, sorting
+ * and paging) share a single Elasticsearch query.
+ */
+@Service
+@Primary
+public class CoalescingElasticsearchVehicleService implements IElasticsearchVehicleService {
+
+    private final ElasticsearchVehicleService delegate;
+    private final SingleFlight<SearchQueryKey, PaginatedVehicleSearchResponseDto> singleFlight;
+    private final boolean enabled;
+
+    public CoalescingElasticsearchVehicleService(
+            ElasticsearchVehicleService delegate,
+            MeterRegistry meterRegistry,
+            @Value("${search.coalescing.enabled:true}") boolean enabled) {
+        this.delegate = delegate;
+        this.singleFlight = new SingleFlight<>("elasticsearch-search", meterRegistry);
+        this.enabled = enabled;
+    }
+
+    @Override
+    public PaginatedVehicleSearchResponseDto searchVehicles(AdvancedVehicleSearchRequestDto searchRequest) {
+        if (!enabled) {
+            return delegate.searchVehicles(searchRequest);
+        }
+        return singleFlight.execute(SearchQueryKey.ofAdvanced(searchRequest),
+                () -> delegate.searchVehicles(searchRequest));
+    }
+
+    @Override
+    public Mono<PaginatedVehicleSearchResponseDto> searchVehiclesReactive(AdvancedVehicleSearchRequestDto searchRequest) {
+        if (!enabled) {
+            return delegate.searchVehiclesReactive(searchRequest);
+        }
+        return singleFlight.executeReactive(SearchQueryKey.ofAdvanced(searchRequest),
+                () -> delegate.searchVehiclesReactive(searchRequest));
+    }
+
+    /**
+     * Map searches vary with every pan and zoom, so they are not coalesced.
+     */
+    @Override
+    public VehicleMapClustersResponseDto searchVehicleClusters(VehicleMapSearchRequestDto mapRequest) {
+        return delegate.searchVehicleClusters(mapRequest);
+    }
+
+    @Override
+    public Mono<VehicleMapClustersResponseDto> searchVehicleClustersReactive(VehicleMapSearchRequestDto mapRequest) {
+        return delegate.searchVehicleClustersReactive(mapRequest);
+    }
+}
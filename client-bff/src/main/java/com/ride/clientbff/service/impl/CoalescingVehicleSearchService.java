@@ -0,0 +1,63 @@
+package com.ride.clientbff.service.impl;
+
+import com.ride.clientbff.dto.AvailableVehicleDto;
+import com.ride.clientbff.dto.VehicleSearchRequestDto;
+import com.ride.clientbff.dto.VehicleSearchResponseDto;
+import com.ride.clientbff.service.IVehicleSearchService;
+import com.ride.clientbff.service.support.SearchQueryKey;
+import com.ride.clientbff.service.support.SingleFlight;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Coalescing layer in front of {@link VehicleSearchService}.
+ * <p>
+ * Concurrent searches with the same canonical key (location, dates and times)
+ * share a single vehicle and pricing fan-out, so backend load follows the number
+ * of distinct queries rather than the number of users.
+ * Streamed searches are passed straight through.
+ */
+@Service
+@Primary
+public class CoalescingVehicleSearchService implements IVehicleSearchService {
+
+    private final VehicleSearchService delegate;
+    private final SingleFlight<SearchQueryKey, VehicleSearchResponseDto> singleFlight;
+    private final boolean enabled;
+
+    public CoalescingVehicleSearchService(
+            VehicleSearchService delegate,
+            MeterRegistry meterRegistry,
+            @Value("${search.coalescing.enabled:true}") boolean enabled) {
+        this.delegate = delegate;
+        this.singleFlight = new SingleFlight<>("vehicle-search", meterRegistry);
+        this.enabled = enabled;
+    }
+
+    @Override
+    public VehicleSearchResponseDto searchAvailableVehicles(VehicleSearchRequestDto searchRequest) {
+        if (!enabled) {
+            return delegate.searchAvailableVehicles(searchRequest);
+        }
+        return singleFlight.execute(SearchQueryKey.of(searchRequest),
+                () -> delegate.searchAvailableVehicles(searchRequest));
+    }
+
+    @Override
+    public Mono<VehicleSearchResponseDto> searchAvailableVehiclesReactive(VehicleSearchRequestDto searchRequest) {
+        if (!enabled) {
+            return delegate.searchAvailableVehiclesReactive(searchRequest);
+        }
+        return singleFlight.executeReactive(SearchQueryKey.of(searchRequest),
+                () -> delegate.searchAvailableVehiclesReactive(searchRequest));
+    }
+
+    @Override
+    public Flux<AvailableVehicleDto> streamAvailableVehicles(VehicleSearchRequestDto searchRequest) {
+        return delegate.streamAvailableVehicles(searchRequest);
+    }
+}
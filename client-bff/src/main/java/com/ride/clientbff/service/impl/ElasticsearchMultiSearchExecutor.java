@@ -0,0 +1,121 @@
+package com.ride.clientbff.service.impl;
+
+import com.ride.clientbff.repository.elasticsearch.VehicleSearchSummary;
+import com.ride.clientbff.service.support.HedgePolicy;
+import com.ride.clientbff.service.support.MicroBatcher;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Executes vehicle searches, grouping concurrent ones into one _msearch call.
+ * <p>
+ * Queries arriving within {@code search.msearch.window-ms} are sent together
+ * through a {@link MicroBatcher}, and each caller gets the hits of its own
+ * query. Queries compare by identity, so every caller has its own entry even
+ * when two requests are alike. With batching disabled, each query is sent as
+ * its own search.
+ * <p>
+ * A search still pending after the hedge delay of the "elasticsearch"
+ * {@link HedgePolicy} is sent again on its own. The low-level REST client sends
+ * each request to the next node in turn, and adaptive replica selection steers
+ * it away from the slow shard copy. The first answer wins; the blocking call
+ * that loses runs to completion in the background, within the hedge budget.
+ * <p>
+ * Only from/size searches go through here: a point-in-time search must not
+ * name an index, and every _msearch entry does.
+ * <p>
+ * Metrics: batcher.batch.size, batcher.wait and batcher.lookups tagged
+ * batcher=msearch, plus search.msearch.duration for the _msearch round trip.
+ */
+@Component
+@Slf4j
+public class ElasticsearchMultiSearchExecutor {
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final Scheduler blockingCallScheduler;
+    private final boolean enabled;
+    private final MicroBatcher<Query, SearchHits<VehicleSearchSummary>> batcher;
+    private final Timer multiSearchTimer;
+    private final HedgePolicy hedgePolicy;
+
+    public ElasticsearchMultiSearchExecutor(
+            ElasticsearchOperations elasticsearchOperations,
+            Scheduler blockingCallScheduler,
+            MeterRegistry meterRegistry,
+            @Qualifier("elasticsearchHedgePolicy") HedgePolicy hedgePolicy,
+            @Value("${search.msearch.enabled:false}") boolean enabled,
+            @Value("${search.msearch.window-ms:2}") long windowMs,
+            @Value("${search.msearch.max-size:20}") int maxSize) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.blockingCallScheduler = blockingCallScheduler;
+        this.enabled = enabled;
+        this.hedgePolicy = hedgePolicy;
+        this.batcher = new MicroBatcher<>("msearch", this::multiSearch,
+                Duration.ofMillis(windowMs), maxSize, Schedulers.parallel(), meterRegistry);
+        this.multiSearchTimer = Timer.builder("search.msearch.duration")
+                .description("Round trip of one _msearch call")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        log.info("Elasticsearch multi-search batching: enabled={}, window={}ms, maxSize={}",
+                enabled, windowMs, maxSize);
+    }
+
+    /**
+     * Runs a vehicle search, batched with concurrent searches and hedged when
+     * enabled. Blocks until the hits are available.
+     *
+     * @param query from/size query without a point-in-time
+     * @return the hits of this query
+     */
+    public SearchHits<VehicleSearchSummary> search(Query query) {
+        if (!enabled && !hedgePolicy.isEnabled()) {
+            return elasticsearchOperations.search(query, VehicleSearchSummary.class);
+        }
+        Mono<SearchHits<VehicleSearchSummary>> primary = enabled
+                ? batcher.load(query)
+                : searchAlone(query);
+        return hedgePolicy.execute(primary, () -> searchAlone(query))
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("No _msearch response for query")))
+                .block();
+    }
+
+    private Mono<SearchHits<VehicleSearchSummary>> searchAlone(Query query) {
+        return Mono.fromCallable(() -> elasticsearchOperations.search(query, VehicleSearchSummary.class))
+                .subscribeOn(blockingCallScheduler);
+    }
+
+    /**
+     * Sends one batch as a single _msearch call. Responses come back in request
+     * order.
+     */
+    private Mono<Map<Query, SearchHits<VehicleSearchSummary>>> multiSearch(Set<Query> queries) {
+        List<Query> ordered = new ArrayList<>(queries);
+        return Mono.fromCallable(() -> multiSearchTimer.record(() ->
+                        elasticsearchOperations.multiSearch(ordered, VehicleSearchSummary.class)))
+                .map(responses -> {
+                    Map<Query, SearchHits<VehicleSearchSummary>> byQuery = new HashMap<>();
+                    for (int i = 0; i < ordered.size(); i++) {
+                        byQuery.put(ordered.get(i), responses.get(i));
+                    }
+                    return byQuery;
+                })
+                .subscribeOn(blockingCallScheduler);
+    }
+}
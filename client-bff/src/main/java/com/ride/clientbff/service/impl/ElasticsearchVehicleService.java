@@ -1,91 +1,358 @@
 package com.ride.clientbff.service.impl;
 
+import co.elastic.clients.elasticsearch._types.SortOptions;
+import co.elastic.clients.elasticsearch._types.SortOrder;
 import com.ride.clientbff.dto.AdvancedVehicleSearchRequestDto;
 import com.ride.clientbff.dto.AvailableVehicleDto;
+import com.ride.clientbff.dto.MapClusterDto;
 import com.ride.clientbff.dto.PaginatedVehicleSearchResponseDto;
-import com.ride.clientbff.repository.elasticsearch.VehiclesSearchDocument;
+import com.ride.clientbff.dto.VehicleMapClustersResponseDto;
+import com.ride.clientbff.dto.VehicleMapSearchRequestDto;
 import com.ride.clientbff.repository.elasticsearch.VehicleSearchRepository;
+import com.ride.clientbff.repository.elasticsearch.VehicleSearchSummary;
 import com.ride.clientbff.service.IElasticsearchVehicleService;
+import com.ride.clientbff.service.support.PointInTimeCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.client.elc.NativeQueryBuilder;
 import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
 import org.springframework.data.elasticsearch.core.SearchHit;
 import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.data.elasticsearch.core.TotalHitsRelation;
 import org.springframework.data.elasticsearch.core.geo.GeoPoint;
-import org.springframework.data.elasticsearch.core.query.Criteria;
-import org.springframework.data.elasticsearch.core.query.CriteriaQuery;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.data.elasticsearch.core.query.FetchSourceFilterBuilder;
+import org.springframework.data.elasticsearch.core.query.GeoDistanceOrder;
+import org.springframework.data.elasticsearch.core.query.BaseQuery;
+import org.springframework.data.elasticsearch.core.query.Query;
+import org.springframework.data.elasticsearch.core.query.ScriptData;
+import org.springframework.data.elasticsearch.core.query.ScriptType;
+import org.springframework.data.elasticsearch.core.query.ScriptedField;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.stream.Collectors;
 
 /**
  * Implementation of Elasticsearch Vehicle Service.
  * Uses Spring Data Elasticsearch Repository to query the vehicle index.
+ * <p>
+ * All predicates are sent as non-scoring filter clauses
+ * ({@link VehicleSearchQueries}), and page-number requests may be answered from
+ * the shard request cache. Concurrent page-number requests can share one
+ * _msearch call ({@link ElasticsearchMultiSearchExecutor}).
+ * <p>
+ * Page-number requests use from/size. Cursor requests read every page from one
+ * point-in-time with search_after, so each page costs the same at any depth and
+ * is not capped by index.max_result_window.
+ * <p>
+ * Hits are read into {@link VehicleSearchSummary}: only the mapped fields are
+ * fetched from _source, and the first image comes from a script field.
+ * <p>
+ * Filter facets are optional and come from the same request as the hits
+ * ({@link VehicleSearchFacets}). The map view returns tile clusters instead of
+ * hits ({@link VehicleMapClusters}).
+ * <p>
+ * The total cost sort and each hit's total for the rental period are computed
+ * by a script from the indexed prices ({@link VehicleTotalCost}).
+ * <p>
+ * When the in-process replica is enabled and fresh, plain page-number searches
+ * in its hot regions are answered from it without a cluster round trip
+ * ({@link VehicleSearchReplica}).
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ElasticsearchVehicleService implements IElasticsearchVehicleService {
 
+    private static final String VEHICLE_SEARCH_INDEX = "vehicle_search";
+    private static final String DISTANCE_SORT = "distance";
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+
     private final VehicleSearchRepository vehicleSearchRepository;
     private final ElasticsearchOperations elasticsearchOperations;
+    private final ElasticsearchMultiSearchExecutor multiSearchExecutor;
+    private final Scheduler blockingCallScheduler;
+    private final ObjectProvider<VehicleSearchReplica> vehicleSearchReplica;
+
+    /**
+     * How long a cursor's point-in-time is kept open between two page requests.
+     */
+    @Value("${search.cursor.keep-alive:1m}")
+    private Duration cursorKeepAlive;
+
+    /**
+     * Width of a daily price bucket in the price histogram facet.
+     */
+    @Value("${search.facets.price-interval:50}")
+    private double facetPriceInterval;
+
+    /**
+     * Maximum number of clusters returned for one map view.
+     */
+    @Value("${search.map.max-clusters:500}")
+    private int mapMaxClusters;
 
     @Override
     public PaginatedVehicleSearchResponseDto searchVehicles(AdvancedVehicleSearchRequestDto searchRequest) {
         log.info("Searching vehicles in Elasticsearch. Location: {}, Lat: {}, Lon: {}",
                 searchRequest.getPickupLocation(), searchRequest.getLatitude(), searchRequest.getLongitude());
 
-        // Build Criteria
-        Criteria criteria = new Criteria("status").is("AVAILABLE"); // Default to available
+        if (searchRequest.getCursor() != null && !searchRequest.getCursor().isBlank()) {
+            return searchWithCursor(searchRequest, PointInTimeCursor.decode(searchRequest.getCursor()));
+        }
+        if (Boolean.TRUE.equals(searchRequest.getUseCursor())) {
+            return searchWithCursor(searchRequest, null);
+        }
+
+        VehicleSearchReplica replica = vehicleSearchReplica.getIfAvailable();
+        if (replica != null && replica.canServe(searchRequest)) {
+            return searchReplica(replica, searchRequest);
+        }
+
+        // Pagination & Sorting
+        Sort sort = createSort(searchRequest);
+        Pageable pageable = PageRequest.of(searchRequest.getPageNumber(), searchRequest.getPageSize(), sort);
+
+        BaseQuery query = buildQuery(searchRequest);
+        query.setPageable(pageable);
+        // Same filters and page on an unchanged index are answered from the shard request cache
+        query.setRequestCache(true);
+        applyProjection(query, searchRequest);
+
+        // Execute Search, batched with concurrent searches into one _msearch when enabled
+        SearchHits<VehicleSearchSummary> searchHits = multiSearchExecutor.search(query);
+
+        return mapToResponse(searchHits, searchRequest, pageable.getPageNumber(), pageable.getPageSize());
+    }
+
+    /**
+     * Reads one page from a point-in-time with search_after.
+     * <p>
+     * Process:
+     * 1. Open a point-in-time on the first page, or reuse the cursor's
+     * 2. Sort by the requested field with "id" as tiebreaker, so the order is total
+     * 3. Continue after the sort values of the previous page's last hit
+     * 4. Return a cursor for the next page, or close the point-in-time on the last one
+     *
+     * @param searchRequest search criteria; pageNumber is ignored
+     * @param cursor        cursor from the previous page, or null for the first page
+     * @return one page of vehicles with the cursor for the next page
+     */
+    private PaginatedVehicleSearchResponseDto searchWithCursor(AdvancedVehicleSearchRequestDto searchRequest,
+            PointInTimeCursor cursor) {
+        String pitId = cursor != null
+                ? cursor.pitId()
+                : elasticsearchOperations.openPointInTime(
+                        IndexCoordinates.of(VEHICLE_SEARCH_INDEX), cursorKeepAlive);
+        int pageNumber = cursor != null ? cursor.pageNumber() : 0;
+        int pageSize = searchRequest.getPageSize();
+
+        // The total cost sort already ends with the "id" tiebreaker
+        Sort sort = VehicleTotalCost.isSortedBy(searchRequest)
+                ? Sort.unsorted()
+                : createSort(searchRequest).and(Sort.by(Sort.Direction.ASC, "id"));
+
+        BaseQuery query = buildQuery(searchRequest);
+        query.setPageable(PageRequest.of(0, pageSize, sort));
+        query.setPointInTime(new Query.PointInTime(pitId, cursorKeepAlive));
+        if (cursor != null) {
+            query.setSearchAfter(cursor.searchAfter());
+        }
+        applyProjection(query, searchRequest);
+
+        SearchHits<VehicleSearchSummary> searchHits = elasticsearchOperations.search(query,
+                VehicleSearchSummary.class);
+
+        // Elasticsearch may return a new id for the same point-in-time
+        String nextPitId = searchHits.getPointInTimeId() != null ? searchHits.getPointInTimeId() : pitId;
+
+        // Total hits may only be a lower bound at depth, so a short page is the reliable end marker
+        boolean last = searchHits.getSearchHits().size() < pageSize
+                || (searchHits.getTotalHitsRelation() == TotalHitsRelation.EQUAL_TO
+                        && (long) (pageNumber + 1) * pageSize >= searchHits.getTotalHits());
 
-        // Location - Text based
-        if (searchRequest.getPickupLocation() != null && !searchRequest.getPickupLocation().isEmpty()) {
-            criteria = criteria.and(new Criteria("location").contains(searchRequest.getPickupLocation()));
+        PaginatedVehicleSearchResponseDto response = mapToResponse(searchHits, searchRequest, pageNumber, pageSize);
+        response.setLast(last);
+        if (last) {
+            elasticsearchOperations.closePointInTime(nextPitId);
+            return response;
         }
 
-        // Geospatial Search
-        if (searchRequest.getLatitude() != null && searchRequest.getLongitude() != null) {
-            double radius = searchRequest.getRadiusKm() != null ? searchRequest.getRadiusKm() : 50.0;
-            criteria = criteria.and(new Criteria("locationGeo")
-                    .within(new GeoPoint(searchRequest.getLatitude(), searchRequest.getLongitude()), radius + "km"));
+        List<Object> lastSortValues = searchHits.getSearchHit(searchHits.getSearchHits().size() - 1).getSortValues();
+        response.setNextCursor(new PointInTimeCursor(nextPitId, lastSortValues, pageNumber + 1).encode());
+        return response;
+    }
+
+    /**
+     * Answers a page-number search from the in-process replica, in the same shape
+     * as a cluster response.
+     */
+    private PaginatedVehicleSearchResponseDto searchReplica(VehicleSearchReplica replica,
+            AdvancedVehicleSearchRequestDto searchRequest) {
+        VehicleSearchReplica.ReplicaPage page = replica.search(searchRequest);
+        int pageNumber = searchRequest.getPageNumber();
+        int pageSize = searchRequest.getPageSize();
+        int totalPages = (int) Math.ceil((double) page.totalElements() / pageSize);
+
+        return PaginatedVehicleSearchResponseDto.builder()
+                .vehicles(page.hits().stream()
+                        .map(doc -> mapToDto(doc, searchRequest))
+                        .collect(Collectors.toList()))
+                .pageNumber(pageNumber)
+                .pageSize(pageSize)
+                .totalElements(page.totalElements())
+                .totalPages(totalPages)
+                .first(pageNumber == 0)
+                .last(pageNumber >= totalPages - 1)
+                .success(true)
+                .message("Found " + page.totalElements() + " vehicles")
+                .build();
+    }
+
+    /**
+     * Limits the hit payload to the fields {@link #mapToDto} reads, plus the total
+     * cost when the rental period is known.
+     */
+    private void applyProjection(BaseQuery query, AdvancedVehicleSearchRequestDto searchRequest) {
+        query.addSourceFilter(new FetchSourceFilterBuilder()
+                .withIncludes(VehicleSearchSummary.SOURCE_INCLUDES)
+                .build());
+        query.addScriptedField(new ScriptedField(VehicleSearchSummary.FIRST_IMAGE_FIELD,
+                new ScriptData(ScriptType.INLINE, "painless", VehicleSearchSummary.FIRST_IMAGE_SCRIPT, null, null)));
+        VehicleTotalCost.rentalDays(searchRequest)
+                .ifPresent(days -> query.addScriptedField(VehicleTotalCost.scriptedField(days)));
+    }
+
+    /**
+     * Builds the search query with every predicate in filter context. With facets,
+     * the body type and price filters move to a post_filter so the facet
+     * aggregations can ignore their own filter. The total cost sort is a script
+     * sort, so it is set here rather than through the pageable.
+     */
+    private BaseQuery buildQuery(AdvancedVehicleSearchRequestDto searchRequest) {
+        boolean includeFacets = Boolean.TRUE.equals(searchRequest.getIncludeFacets());
+
+        List<co.elastic.clients.elasticsearch._types.query_dsl.Query> filters =
+                VehicleSearchQueries.baseFilters(searchRequest);
+        if (!includeFacets) {
+            VehicleSearchQueries.bodyTypeFilter(searchRequest).ifPresent(filters::add);
+            VehicleSearchQueries.priceFilter(searchRequest).ifPresent(filters::add);
         }
 
-        // Basic Filters
-        if (searchRequest.getBodyTypeFilter() != null && !searchRequest.getBodyTypeFilter().isEmpty()) {
-            criteria = criteria.and(new Criteria("bodyType").is(searchRequest.getBodyTypeFilter()));
+        NativeQueryBuilder builder = NativeQuery.builder()
+                .withQuery(VehicleSearchQueries.allOf(filters));
+        if (includeFacets) {
+            VehicleSearchFacets.postFilter(searchRequest).ifPresent(builder::withFilter);
+            VehicleSearchFacets.aggregations(searchRequest, facetPriceInterval).forEach(builder::withAggregation);
         }
-        if (searchRequest.getMinPrice() != null) {
-            criteria = criteria.and(new Criteria("pricePerDay").greaterThanEqual(searchRequest.getMinPrice()));
+        if (VehicleTotalCost.isSortedBy(searchRequest)) {
+            builder.withSort(VehicleTotalCost.sort(searchRequest))
+                    .withSort(SortOptions.of(s -> s.field(f -> f.field("id").order(SortOrder.Asc))));
         }
-        if (searchRequest.getMaxPrice() != null) {
-            criteria = criteria.and(new Criteria("pricePerDay").lessThanEqual(searchRequest.getMaxPrice()));
+        return builder.build();
+    }
+
+    /**
+     * Counts matching vehicles per map tile inside the visible bounding box.
+     * <p>
+     * Process:
+     * 1. Apply the advanced search filters, with the bounding box instead of the radius
+     * 2. Cluster with geotile_grid at the zoom level; no individual hits are fetched
+     * 3. Return one cluster per non-empty tile with its centroid and lowest price
+     */
+    @Override
+    public VehicleMapClustersResponseDto searchVehicleClusters(VehicleMapSearchRequestDto mapRequest) {
+        log.info("Searching vehicle clusters in Elasticsearch. Zoom: {}, box: [{}, {}] - [{}, {}]",
+                mapRequest.getZoom(), mapRequest.getTopLeftLatitude(), mapRequest.getTopLeftLongitude(),
+                mapRequest.getBottomRightLatitude(), mapRequest.getBottomRightLongitude());
+
+        if (mapRequest.getTopLeftLatitude() == null || mapRequest.getTopLeftLongitude() == null
+                || mapRequest.getBottomRightLatitude() == null || mapRequest.getBottomRightLongitude() == null) {
+            throw new IllegalArgumentException("Map search requires all bounding box corners");
         }
+        int zoom = Math.clamp(mapRequest.getZoom() != null ? mapRequest.getZoom() : 10, 0, VehicleMapClusters.MAX_ZOOM);
 
-        // Pagination & Sorting
-        Sort sort = createSort(searchRequest.getSortBy(), searchRequest.getSortDirection());
-        Pageable pageable = PageRequest.of(searchRequest.getPageNumber(), searchRequest.getPageSize(), sort);
+        List<co.elastic.clients.elasticsearch._types.query_dsl.Query> filters =
+                VehicleSearchQueries.baseFilters(mapRequest, false);
+        VehicleSearchQueries.bodyTypeFilter(mapRequest).ifPresent(filters::add);
+        VehicleSearchQueries.priceFilter(mapRequest).ifPresent(filters::add);
+        filters.add(VehicleSearchQueries.boundingBoxFilter(mapRequest));
 
-        CriteriaQuery query = new CriteriaQuery(criteria);
-        query.setPageable(pageable);
+        NativeQuery query = NativeQuery.builder()
+                .withQuery(VehicleSearchQueries.allOf(filters))
+                .withAggregation(VehicleMapClusters.CLUSTERS,
+                        VehicleMapClusters.aggregation(mapRequest, zoom, mapMaxClusters))
+                .withMaxResults(0)
+                .withRequestCache(true)
+                .build();
+
+        SearchHits<VehicleSearchSummary> searchHits = elasticsearchOperations.search(query,
+                VehicleSearchSummary.class);
+        List<MapClusterDto> clusters = searchHits.hasAggregations()
+                ? VehicleMapClusters.read(searchHits.getAggregations())
+                : List.of();
+
+        return VehicleMapClustersResponseDto.builder()
+                .clusters(clusters)
+                .totalElements(searchHits.getTotalHits())
+                .zoom(zoom)
+                .success(true)
+                .message("Found " + searchHits.getTotalHits() + " vehicles in " + clusters.size() + " clusters")
+                .build();
+    }
 
-        // Execute Search
-        SearchHits<VehiclesSearchDocument> searchHits = elasticsearchOperations.search(query,
-                VehiclesSearchDocument.class);
+    @Override
+    public Mono<VehicleMapClustersResponseDto> searchVehicleClustersReactive(VehicleMapSearchRequestDto mapRequest) {
+        return Mono.fromCallable(() -> searchVehicleClusters(mapRequest))
+                .subscribeOn(blockingCallScheduler);
+    }
 
-        return mapToResponse(searchHits, pageable);
+    /**
+     * Runs the Elasticsearch search on the blocking-call scheduler (bounded elastic,
+     * or virtual threads when enabled), so the blocking ElasticsearchOperations call
+     * never runs on a request or event-loop thread.
+     */
+    @Override
+    public Mono<PaginatedVehicleSearchResponseDto> searchVehiclesReactive(AdvancedVehicleSearchRequestDto searchRequest) {
+        return Mono.fromCallable(() -> searchVehicles(searchRequest))
+                .subscribeOn(blockingCallScheduler);
     }
 
-    private Sort createSort(String sortBy, String sortDirection) {
+    private Sort createSort(AdvancedVehicleSearchRequestDto searchRequest) {
+        String sortBy = searchRequest.getSortBy();
+        String sortDirection = searchRequest.getSortDirection();
+
         Sort.Direction direction = Sort.Direction.ASC;
         if (sortDirection != null && sortDirection.equalsIgnoreCase("DESC")) {
             direction = Sort.Direction.DESC;
         }
 
+        if (VehicleTotalCost.isSortedBy(searchRequest)) {
+            // Script sort, added to the native query by buildQuery
+            return Sort.unsorted();
+        }
+
+        if (DISTANCE_SORT.equalsIgnoreCase(sortBy)) {
+            if (searchRequest.getLatitude() == null || searchRequest.getLongitude() == null) {
+                throw new IllegalArgumentException("Sorting by distance requires latitude and longitude");
+            }
+            return Sort.by(new GeoDistanceOrder("locationGeo",
+                    new GeoPoint(searchRequest.getLatitude(), searchRequest.getLongitude()))
+                    .withUnit("km")
+                    .with(direction));
+        }
+
         String sortField = "pricePerDay"; // default
         if (sortBy != null && !sortBy.isEmpty()) {
             sortField = sortBy;
@@ -94,30 +361,36 @@ public class ElasticsearchVehicleService implements IElasticsearchVehicleService
         return Sort.by(direction, sortField);
     }
 
-    private PaginatedVehicleSearchResponseDto mapToResponse(SearchHits<VehiclesSearchDocument> searchHits,
-            Pageable pageable) {
+    private PaginatedVehicleSearchResponseDto mapToResponse(SearchHits<VehicleSearchSummary> searchHits,
+            AdvancedVehicleSearchRequestDto searchRequest, int pageNumber, int pageSize) {
         List<AvailableVehicleDto> vehicles = searchHits.getSearchHits().stream()
                 .map(SearchHit::getContent)
-                .map(this::mapToDto)
+                .map(doc -> mapToDto(doc, searchRequest))
                 .collect(Collectors.toList());
 
         long totalHits = searchHits.getTotalHits();
-        int totalPages = (int) Math.ceil((double) totalHits / pageable.getPageSize());
+        int totalPages = (int) Math.ceil((double) totalHits / pageSize);
 
         return PaginatedVehicleSearchResponseDto.builder()
                 .vehicles(vehicles)
-                .pageNumber(pageable.getPageNumber())
-                .pageSize(pageable.getPageSize())
+                .pageNumber(pageNumber)
+                .pageSize(pageSize)
                 .totalElements(totalHits)
                 .totalPages(totalPages)
-                .first(pageable.getPageNumber() == 0)
-                .last(pageable.getPageNumber() >= totalPages - 1)
+                .first(pageNumber == 0)
+                .last(pageNumber >= totalPages - 1)
                 .success(true)
                 .message("Found " + totalHits + " vehicles")
+                .facets(Boolean.TRUE.equals(searchRequest.getIncludeFacets()) && searchHits.hasAggregations()
+                        ? VehicleSearchFacets.read(searchHits.getAggregations())
+                        : null)
                 .build();
     }
 
-    private AvailableVehicleDto mapToDto(VehiclesSearchDocument doc) {
+    private AvailableVehicleDto mapToDto(VehicleSearchSummary doc, AdvancedVehicleSearchRequestDto searchRequest) {
+        int rentalDays = doc.getTotalCost() != null
+                ? (int) VehicleTotalCost.rentalDays(searchRequest).orElse(0)
+                : 0;
         return AvailableVehicleDto.builder()
                 // Map fields from doc to dto
                 .vehicleId(java.util.UUID.fromString(doc.getVehicleId())) // Use correct IDs
@@ -126,10 +399,34 @@ public class ElasticsearchVehicleService implements IElasticsearchVehicleService
                 .year(doc.getYear())
                 .bodyType(doc.getBodyType())
                 .pricePerDay(doc.getPricePerDay() != null ? doc.getPricePerDay() : 0.0)
+                .priceSource(AvailableVehicleDto.PRICE_SOURCE_INDEXED)
                 .location("N/A") // Location isn't explicit in doc except maybe implicit from search? Add if
                                  // needed.
                 // Address other fields...
-                .imageUrl(doc.getImages() != null && !doc.getImages().isEmpty() ? doc.getImages().get(0) : null)
+                .imageUrl(doc.getFirstImage())
+                .availableFrom(doc.getAvailableFrom())
+                .availableUntil(doc.getAvailableUntil())
+                .distanceKm(distanceKm(doc.getLocationGeo(), searchRequest.getLatitude(), searchRequest.getLongitude()))
+                .totalCost(doc.getTotalCost() != null ? doc.getTotalCost() : 0.0)
+                .rentalDays(rentalDays)
                 .build();
     }
+
+    /**
+     * Great-circle distance from the user's position to the vehicle, matching the
+     * arc distance Elasticsearch uses for the distance sort.
+     */
+    static Double distanceKm(GeoPoint vehicleLocation, Double latitude, Double longitude) {
+        if (vehicleLocation == null || latitude == null || longitude == null) {
+            return null;
+        }
+        double lat1 = Math.toRadians(latitude);
+        double lat2 = Math.toRadians(vehicleLocation.getLat());
+        double deltaLat = lat2 - lat1;
+        double deltaLon = Math.toRadians(vehicleLocation.getLon() - longitude);
+
+        double a = Math.sin(deltaLat / 2) * Math.sin(deltaLat / 2)
+                + Math.cos(lat1) * Math.cos(lat2) * Math.sin(deltaLon / 2) * Math.sin(deltaLon / 2);
+        return EARTH_RADIUS_KM * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
 }
@@ -0,0 +1,222 @@
+package com.ride.clientbff.service.impl;
+
+import com.ride.clientbff.dto.AvailableVehicleDto;
+import com.ride.clientbff.service.IPricingServiceClient;
+import com.ride.clientbff.service.support.DownstreamGuard;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Resolves the pricing of a search result from the index or the Pricing Service.
+ * <p>
+ * With hybrid pricing enabled, the indexed prices are used when their
+ * {@code pricingUpdatedAt} is within the freshness window. Only vehicles whose
+ * indexed prices are stale or missing are priced by the Pricing Service, so a
+ * search over recently indexed vehicles makes no pricing call at all. Without
+ * hybrid pricing, every vehicle is priced by the Pricing Service.
+ * <p>
+ * A search is resolved as a whole: with batching enabled, the vehicles that
+ * need live prices are priced by one bulk call per search, not one per vehicle.
+ * <p>
+ * Either way, if the Pricing Service call is rejected by its
+ * {@link DownstreamGuard}, the indexed prices are used regardless of age.
+ * <p>
+ * Metrics: search.pricing.per-query{freshness=fresh|stale|missing}, the number
+ * of vehicles per search in each state, recorded once per search.
+ */
+@Component
+@Slf4j
+public class HybridPricingResolver {
+
+    private final IPricingServiceClient pricingServiceClient;
+    private final IndexedPricingLookup indexedPricingLookup;
+    private final boolean hybridEnabled;
+    private final Duration freshnessWindow;
+    private final boolean pricingBatchEnabled;
+    private final int pricingConcurrency;
+
+    private final DistributionSummary freshPerQuery;
+    private final DistributionSummary stalePerQuery;
+    private final DistributionSummary missingPerQuery;
+
+    public HybridPricingResolver(
+            IPricingServiceClient pricingServiceClient,
+            IndexedPricingLookup indexedPricingLookup,
+            MeterRegistry meterRegistry,
+            @Value("${search.pricing.hybrid.enabled:false}") boolean hybridEnabled,
+            @Value("${search.pricing.hybrid.freshness-window:15m}") Duration freshnessWindow,
+            @Value("${search.pricing.batch.enabled:false}") boolean pricingBatchEnabled,
+            @Value("${search.pricing.max-concurrency:16}") int pricingConcurrency) {
+        this.pricingServiceClient = pricingServiceClient;
+        this.indexedPricingLookup = indexedPricingLookup;
+        this.hybridEnabled = hybridEnabled;
+        this.freshnessWindow = freshnessWindow;
+        this.pricingBatchEnabled = pricingBatchEnabled;
+        this.pricingConcurrency = pricingConcurrency;
+
+        this.freshPerQuery = perQuery(meterRegistry, "fresh",
+                "Vehicles per search priced from fresh indexed prices");
+        this.stalePerQuery = perQuery(meterRegistry, "stale",
+                "Vehicles per search whose indexed prices were stale and re-fetched");
+        this.missingPerQuery = perQuery(meterRegistry, "missing",
+                "Vehicles per search without indexed prices, fetched from the Pricing Service");
+        log.info("Hybrid pricing: enabled={}, freshnessWindow={}", hybridEnabled, freshnessWindow);
+    }
+
+    /**
+     * Starts counting the pricing states of one search.
+     *
+     * @return tally to pass to {@link #resolveAll} and record when the search completes
+     */
+    public Tally newTally() {
+        return new Tally();
+    }
+
+    /**
+     * Resolves the pricing of the vehicles of one search.
+     * <p>
+     * With batching enabled, all vehicles needing live prices are priced by a
+     * single {@code getPricingForVehicles} call; otherwise they are priced one
+     * by one, bounded by {@code search.pricing.max-concurrency}.
+     *
+     * @param ownerHasVehicleIds the OwnersHasVehicle IDs of the search results
+     * @param tally              pricing states of the current search
+     * @return Mono emitting the prices by OwnersHasVehicle ID; vehicles without prices are absent
+     */
+    public Mono<Map<String, AvailableVehicleDto>> resolveAll(List<String> ownerHasVehicleIds, Tally tally) {
+        if (ownerHasVehicleIds.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        if (!hybridEnabled) {
+            return fetchLivePricing(ownerHasVehicleIds, indexedPricingLookup::getIndexedPricing);
+        }
+
+        return Flux.fromIterable(ownerHasVehicleIds)
+                .flatMap(id -> indexedPricingLookup.lookup(id)
+                        .map(indexed -> Map.entry(id, indexed))
+                        .onErrorResume(e -> {
+                            log.warn("Indexed pricing lookup failed for vehicle {}: {}", id, e.getMessage());
+                            return Mono.empty();
+                        }))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .flatMap(indexedById -> {
+                    Map<String, AvailableVehicleDto> resolved = new HashMap<>();
+                    Map<String, AvailableVehicleDto> staleIndexed = new HashMap<>();
+                    List<String> live = new ArrayList<>();
+                    for (String id : ownerHasVehicleIds) {
+                        IndexedPricingLookup.IndexedPricing indexed = indexedById.get(id);
+                        if (indexed != null && isFresh(indexed.pricingUpdatedAt())) {
+                            tally.fresh.incrementAndGet();
+                            resolved.put(id, indexed.pricing());
+                            continue;
+                        }
+                        (indexed == null ? tally.missing : tally.stale).incrementAndGet();
+                        if (indexed != null) {
+                            staleIndexed.put(id, indexed.pricing());
+                        }
+                        live.add(id);
+                    }
+                    return fetchLivePricing(live, id -> Mono.justOrEmpty(staleIndexed.get(id)))
+                            .map(livePricing -> {
+                                resolved.putAll(livePricing);
+                                return resolved;
+                            });
+                });
+    }
+
+    /**
+     * Records the pricing states counted for one search.
+     *
+     * @param tally pricing states of the completed search
+     */
+    public void record(Tally tally) {
+        if (!hybridEnabled) {
+            return;
+        }
+        freshPerQuery.record(tally.fresh.get());
+        stalePerQuery.record(tally.stale.get());
+        missingPerQuery.record(tally.missing.get());
+    }
+
+    private boolean isFresh(Instant pricingUpdatedAt) {
+        return pricingUpdatedAt != null && pricingUpdatedAt.isAfter(Instant.now().minus(freshnessWindow));
+    }
+
+    /**
+     * Fetches live pricing for the given vehicles, in one bulk call when batching
+     * is enabled. Vehicles the Pricing Service rejects fall back to the index;
+     * vehicles whose pricing fetch otherwise fails are left out.
+     */
+    private Mono<Map<String, AvailableVehicleDto>> fetchLivePricing(
+            List<String> ownerHasVehicleIds, Function<String, Mono<AvailableVehicleDto>> indexed) {
+        if (ownerHasVehicleIds.isEmpty()) {
+            return Mono.just(Map.of());
+        }
+        if (pricingBatchEnabled) {
+            return pricingServiceClient.getPricingForVehicles(ownerHasVehicleIds)
+                    .onErrorResume(DownstreamGuard::isRejected, e -> {
+                        log.debug("Pricing Service unavailable ({}), using indexed pricing for {} vehicles",
+                                e.getClass().getSimpleName(), ownerHasVehicleIds.size());
+                        return Flux.fromIterable(ownerHasVehicleIds)
+                                .flatMap(id -> indexed.apply(id).map(pricing -> Map.entry(id, pricing)))
+                                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+                    })
+                    .onErrorResume(e -> {
+                        log.warn("Failed to fetch pricing for {} vehicles: {}", ownerHasVehicleIds.size(),
+                                e.getMessage());
+                        return Mono.just(Map.of());
+                    });
+        }
+        return Flux.fromIterable(ownerHasVehicleIds)
+                .flatMap(id -> pricingServiceClient.getPricingForVehicle(id)
+                        .onErrorResume(DownstreamGuard::isRejected,
+                                e -> fallBackToIndex(id, e, indexed.apply(id)))
+                        .onErrorResume(e -> {
+                            log.warn("Failed to fetch pricing for vehicle {}: {}", id, e.getMessage());
+                            return Mono.empty();
+                        })
+                        .map(pricing -> Map.entry(id, pricing)), pricingConcurrency)
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+
+    private Mono<AvailableVehicleDto> fallBackToIndex(String ownerHasVehicleId, Throwable error,
+                                                      Mono<AvailableVehicleDto> indexed) {
+        log.debug("Pricing Service unavailable ({}), using indexed pricing for vehicle {}",
+                error.getClass().getSimpleName(), ownerHasVehicleId);
+        return indexed;
+    }
+
+    private static DistributionSummary perQuery(MeterRegistry meterRegistry, String freshness, String description) {
+        return DistributionSummary.builder("search.pricing.per-query")
+                .description(description)
+                .tag("freshness", freshness)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Pricing states counted for one search.
+     */
+    public static final class Tally {
+
+        private final AtomicInteger fresh = new AtomicInteger();
+        private final AtomicInteger stale = new AtomicInteger();
+        private final AtomicInteger missing = new AtomicInteger();
+
+        private Tally() {
+        }
+    }
+}
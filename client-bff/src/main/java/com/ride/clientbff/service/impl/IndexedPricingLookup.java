@@ -0,0 +1,104 @@
+package com.ride.clientbff.service.impl;
+
+import com.ride.clientbff.dto.AvailableVehicleDto;
+import com.ride.clientbff.repository.elasticsearch.VehicleSearchRepository;
+import com.ride.clientbff.repository.elasticsearch.VehiclesSearchDocument;
+import com.ride.clientbff.service.support.MicroBatcher;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads the prices indexed in 'vehicle_search', for vehicles whose indexed
+ * prices are fresh enough or whose live pricing cannot be fetched.
+ * <p>
+ * Only documents flagged {@code pricingAvailable} with a daily price are used.
+ * Lookups from concurrent searches are merged into one multi-get by a
+ * {@link MicroBatcher}. Returned prices are marked
+ * {@link AvailableVehicleDto#PRICE_SOURCE_INDEXED}.
+ */
+@Component
+@Slf4j
+public class IndexedPricingLookup {
+
+    private final VehicleSearchRepository vehicleSearchRepository;
+    private final Scheduler blockingCallScheduler;
+    private final MicroBatcher<String, IndexedPricing> batcher;
+
+    public IndexedPricingLookup(
+            VehicleSearchRepository vehicleSearchRepository,
+            Scheduler blockingCallScheduler,
+            MeterRegistry meterRegistry,
+            @Value("${search.pricing.indexed.window-ms:5}") long windowMs,
+            @Value("${search.pricing.indexed.max-size:100}") int maxSize) {
+        this.vehicleSearchRepository = vehicleSearchRepository;
+        this.blockingCallScheduler = blockingCallScheduler;
+        this.batcher = new MicroBatcher<>("indexed-pricing", this::fetchIndexedPricing,
+                Duration.ofMillis(windowMs), maxSize, Schedulers.parallel(), meterRegistry);
+    }
+
+    /**
+     * Retrieves the indexed pricing of a vehicle.
+     *
+     * @param ownerHasVehicleId the OwnersHasVehicle ID, the document ID in the index
+     * @return Mono emitting a vehicle with the indexed prices, empty if none are indexed
+     */
+    public Mono<AvailableVehicleDto> getIndexedPricing(String ownerHasVehicleId) {
+        return lookup(ownerHasVehicleId).map(IndexedPricing::pricing);
+    }
+
+    /**
+     * Retrieves the indexed pricing of a vehicle with the time it was indexed.
+     *
+     * @param ownerHasVehicleId the OwnersHasVehicle ID, the document ID in the index
+     * @return Mono emitting the indexed pricing, empty if none is indexed
+     */
+    public Mono<IndexedPricing> lookup(String ownerHasVehicleId) {
+        return batcher.load(ownerHasVehicleId);
+    }
+
+    private Mono<Map<String, IndexedPricing>> fetchIndexedPricing(Set<String> ownerHasVehicleIds) {
+        return Mono.fromCallable(() -> {
+                    Map<String, IndexedPricing> pricing = new HashMap<>();
+                    for (VehiclesSearchDocument document : vehicleSearchRepository.findAllById(ownerHasVehicleIds)) {
+                        if (Boolean.TRUE.equals(document.getPricingAvailable()) && document.getPricePerDay() != null) {
+                            pricing.put(document.getId(),
+                                    new IndexedPricing(toPricing(document), document.getPricingUpdatedAt()));
+                        }
+                    }
+                    log.debug("Indexed pricing found for {} of {} vehicle(s)", pricing.size(), ownerHasVehicleIds.size());
+                    return pricing;
+                })
+                .subscribeOn(blockingCallScheduler);
+    }
+
+    private AvailableVehicleDto toPricing(VehiclesSearchDocument document) {
+        double pricePerDay = document.getPricePerDay();
+        AvailableVehicleDto vehicle = new AvailableVehicleDto();
+        vehicle.setPricePerDay(pricePerDay);
+        vehicle.setPricePerWeek(document.getPricePerWeek() != null ? document.getPricePerWeek() : pricePerDay * 7);
+        vehicle.setPricePerMonth(document.getPricePerMonth() != null ? document.getPricePerMonth() : pricePerDay * 30);
+        vehicle.setCurrencyCode(document.getCurrency());
+        vehicle.setPriceSource(AvailableVehicleDto.PRICE_SOURCE_INDEXED);
+        return vehicle;
+    }
+
+    /**
+     * Indexed pricing of one vehicle.
+     *
+     * @param pricing          vehicle with the indexed prices
+     * @param pricingUpdatedAt when the prices were last written to the index, or null if unknown
+     */
+    public record IndexedPricing(AvailableVehicleDto pricing, Instant pricingUpdatedAt) {
+    }
+}
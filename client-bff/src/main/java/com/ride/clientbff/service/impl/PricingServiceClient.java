@@ -1,32 +1,87 @@
 package com.ride.clientbff.service.impl;
 
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.ride.clientbff.config.HedgingExchangeFilter;
 import com.ride.clientbff.dto.AvailableVehicleDto;
 import com.ride.clientbff.dto.PriceResponseDto;
 import com.ride.clientbff.service.IPricingServiceClient;
 import com.ride.clientbff.service.ServiceTokenService;
+import com.ride.clientbff.service.support.DownstreamGuard;
+import com.ride.clientbff.service.support.MicroBatcher;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import javax.annotation.Resource;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Service client for interacting with the Pricing Service API.
  * Retrieves pricing information for vehicles using the OwnersHasVehicle ID.
+ * <p>
+ * Pricing is cached per OwnersHasVehicle ID. Entries are refreshed in the
+ * background before they expire, and "no pricing" (404) results are cached
+ * with a shorter TTL.
+ * <p>
+ * Every call to the Pricing Service runs through its {@link DownstreamGuard}
+ * (bulkhead, circuit breaker and time limiter). When a call is rejected because
+ * the breaker is open or the bulkhead is full, the error reaches the caller,
+ * which can fall back to indexed prices; the failure is not cached.
  */
 @Service
 @Slf4j
 public class PricingServiceClient implements IPricingServiceClient {
 
-    @Resource(name = "pricingServiceWebClient")
-    private WebClient pricingServiceWebClient;
+    private final WebClient pricingServiceWebClient;
 
     private final ServiceTokenService serviceTokenService;
 
-    public PricingServiceClient(ServiceTokenService serviceTokenService) {
+    private final DownstreamGuard pricingServiceGuard;
+
+    private final MicroBatcher<String, AvailableVehicleDto> pricingBatcher;
+
+    private final AsyncLoadingCache<String, CachedPricing> pricingCache;
+
+    public PricingServiceClient(
+            @Qualifier("pricingServiceWebClient") WebClient pricingServiceWebClient,
+            ServiceTokenService serviceTokenService,
+            @Qualifier("pricingServiceGuard") DownstreamGuard pricingServiceGuard,
+            MeterRegistry meterRegistry,
+            @Value("${search.pricing.batch.window-ms:5}") long batchWindowMs,
+            @Value("${search.pricing.batch.max-size:100}") int batchMaxSize,
+            @Value("${search.pricing.cache.max-size:10000}") long cacheMaxSize,
+            @Value("${search.pricing.cache.ttl:1h}") Duration cacheTtl,
+            @Value("${search.pricing.cache.refresh-after:10m}") Duration cacheRefreshAfter,
+            @Value("${search.pricing.cache.not-found-ttl:60s}") Duration notFoundTtl) {
+        this.pricingServiceWebClient = pricingServiceWebClient;
         this.serviceTokenService = serviceTokenService;
+        this.pricingServiceGuard = pricingServiceGuard;
+        this.pricingBatcher = new MicroBatcher<>("pricing", this::fetchPricingBulk,
+                Duration.ofMillis(batchWindowMs), batchMaxSize);
+        this.pricingCache = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfter(new PricingExpiry(cacheTtl, notFoundTtl))
+                .refreshAfterWrite(cacheRefreshAfter)
+                .recordStats()
+                .buildAsync((ownerHasVehicleId, executor) -> fetchPricing(ownerHasVehicleId).toFuture());
+        CaffeineCacheMetrics.monitor(meterRegistry, pricingCache, "pricing", List.of());
+
+        log.info("Pricing cache configured: maxSize={}, ttl={}, refreshAfter={}, notFoundTtl={}",
+                cacheMaxSize, cacheTtl, cacheRefreshAfter, notFoundTtl);
     }
 
     /**
@@ -36,32 +91,97 @@ public class PricingServiceClient implements IPricingServiceClient {
      * because pricing is tied to each owner-vehicle relationship.
      *
      * @param ownerHasVehicleId the OwnersHasVehicle ID (vehicleId in pricing service)
-     * @return Mono emitting the vehicle with pricing information populated
+     * @return Mono emitting the vehicle with pricing information populated,
+     *         empty if the vehicle has no pricing configured
      */
     @Override
     public Mono<AvailableVehicleDto> getPricingForVehicle(String ownerHasVehicleId) {
+        return Mono.fromFuture(pricingCache.get(ownerHasVehicleId), true)
+                .mapNotNull(CachedPricing::pricing)
+                .onErrorResume(e -> {
+                    log.error("Error retrieving pricing: {}", e.getMessage(), e);
+                    return Mono.error(e);
+                });
+    }
+
+    /**
+     * Fetches pricing for a single vehicle from the Pricing Service.
+     * Used as the cache loader on misses and background refreshes.
+     *
+     * @param ownerHasVehicleId the OwnersHasVehicle ID (vehicleId in pricing service)
+     * @return Mono emitting the cache entry; a 404 yields a "no pricing" entry
+     */
+    private Mono<CachedPricing> fetchPricing(String ownerHasVehicleId) {
         log.info("Fetching pricing for vehicle: {}", ownerHasVehicleId);
 
         return serviceTokenService.getAccessToken()
                 .flatMap(token -> {
                     log.debug("Access token obtained for pricing service");
 
-                    return pricingServiceWebClient.get()
+                    // A 404 is an answer, not a failure, so it is handled inside the guard
+                    return pricingServiceGuard.guard(pricingServiceWebClient.get()
                             .uri("/api/v1/pricing/prices/{vehicleId}", ownerHasVehicleId)
                             .headers(headers -> headers.setBearerAuth(token))
                             .accept(MediaType.APPLICATION_JSON)
                             .retrieve()
                             .bodyToMono(PriceResponseDto.class)
-                            .map(priceResponse -> enrichVehicleWithPricing(priceResponse))
+                            .map(priceResponse -> new CachedPricing(enrichVehicleWithPricing(priceResponse)))
                             .doOnSuccess(vehicle -> log.debug("Pricing retrieved for vehicle: {}", ownerHasVehicleId))
+                            .onErrorResume(WebClientResponseException.NotFound.class, e -> {
+                                log.debug("No pricing configured for vehicle: {}", ownerHasVehicleId);
+                                return Mono.just(CachedPricing.NOT_FOUND);
+                            }))
                             .doOnError(e -> log.error("Error fetching pricing: {}", e.getMessage(), e));
-                })
-                .onErrorResume(e -> {
-                    log.error("Error retrieving pricing: {}", e.getMessage(), e);
-                    return Mono.error(e);
                 });
     }
 
+    /**
+     * Retrieves pricing for several vehicles through the pricing micro-batcher.
+     * <p>
+     * Cached IDs are answered from the pricing cache. Misses are queued on the
+     * batcher, which merges lookups from all concurrent searches arriving within
+     * {@code search.pricing.batch.window-ms} into one bulk request.
+     *
+     * @param ownerHasVehicleIds the OwnersHasVehicle IDs (vehicleIds in pricing service)
+     * @return Mono emitting priced vehicles keyed by OwnersHasVehicle ID
+     */
+    @Override
+    public Mono<Map<String, AvailableVehicleDto>> getPricingForVehicles(Collection<String> ownerHasVehicleIds) {
+        return Flux.fromIterable(new LinkedHashSet<>(ownerHasVehicleIds))
+                .flatMap(id -> Mono.fromFuture(pricingCache.get(id, (key, executor) -> pricingBatcher.load(key)
+                                        .map(CachedPricing::new)
+                                        .defaultIfEmpty(CachedPricing.NOT_FOUND)
+                                        .toFuture()), true)
+                        .mapNotNull(CachedPricing::pricing)
+                        .map(vehicle -> Map.entry(id, vehicle)))
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+    }
+
+    /**
+     * Fetches pricing for a batch of vehicles with one bulk request.
+     *
+     * @param ownerHasVehicleIds distinct OwnersHasVehicle IDs in the batch
+     * @return Mono emitting priced vehicles keyed by OwnersHasVehicle ID
+     */
+    private Mono<Map<String, AvailableVehicleDto>> fetchPricingBulk(Set<String> ownerHasVehicleIds) {
+        log.info("Fetching bulk pricing for {} vehicle(s)", ownerHasVehicleIds.size());
+
+        return serviceTokenService.getAccessToken()
+                .flatMap(token -> pricingServiceGuard.guard(pricingServiceWebClient.post()
+                        .uri("/api/v1/pricing/prices/bulk")
+                        // A read despite POST, safe to send twice
+                        .attribute(HedgingExchangeFilter.HEDGEABLE_ATTRIBUTE, true)
+                        .headers(headers -> headers.setBearerAuth(token))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .bodyValue(ownerHasVehicleIds)
+                        .retrieve()
+                        .bodyToFlux(PriceResponseDto.class)
+                        .filter(priceResponse -> priceResponse.getVehicleId() != null)
+                        .collectMap(PriceResponseDto::getVehicleId, this::enrichVehicleWithPricing)))
+                .doOnError(e -> log.error("Error fetching bulk pricing: {}", e.getMessage(), e));
+    }
+
     /**
      * Maps pricing response to vehicle DTO.
      * This is a helper method to convert pricing data to the vehicle DTO format.
@@ -80,7 +200,39 @@ public class PricingServiceClient implements IPricingServiceClient {
         }
 
         vehicle.setCurrencyCode(priceResponse.getCurrencyCode());
+        vehicle.setPriceSource(AvailableVehicleDto.PRICE_SOURCE_LIVE);
 
         return vehicle;
     }
+
+    /**
+     * Cached pricing lookup result.
+     *
+     * @param pricing vehicle with pricing populated, or null if the vehicle has no pricing
+     */
+    private record CachedPricing(AvailableVehicleDto pricing) {
+        private static final CachedPricing NOT_FOUND = new CachedPricing(null);
+    }
+
+    /**
+     * Expires priced entries after the regular TTL and "no pricing" entries
+     * after the shorter not-found TTL.
+     */
+    private record PricingExpiry(Duration ttl, Duration notFoundTtl) implements Expiry<String, CachedPricing> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedPricing value, long currentTime) {
+            return (value.pricing() != null ? ttl : notFoundTtl).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedPricing value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedPricing value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
 }
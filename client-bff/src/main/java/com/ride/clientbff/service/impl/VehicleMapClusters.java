@@ -0,0 +1,97 @@
+package com.ride.clientbff.service.impl;
+
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import com.ride.clientbff.dto.MapClusterDto;
+import com.ride.clientbff.dto.VehicleMapSearchRequestDto;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregation;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregations;
+import org.springframework.data.elasticsearch.core.AggregationsContainer;
+
+import java.util.List;
+
+/**
+ * Map tile clustering for the vehicle map view.
+ * <p>
+ * Vehicles are grouped with a geotile_grid aggregation whose precision is the
+ * map zoom level, so one cluster matches one map tile. Each cluster carries the
+ * centroid of its vehicles as pin position and its lowest daily price.
+ */
+public final class VehicleMapClusters {
+
+    /**
+     * Name of the clustering aggregation in the search request.
+     */
+    public static final String CLUSTERS = "clusters";
+
+    /**
+     * Highest geotile_grid precision supported by Elasticsearch.
+     */
+    public static final int MAX_ZOOM = 29;
+
+    private static final String CENTROID = "centroid";
+    private static final String MIN_PRICE = "minPrice";
+
+    private VehicleMapClusters() {
+    }
+
+    /**
+     * Builds the clustering aggregation.
+     *
+     * @param mapRequest  map search with the bounding box
+     * @param zoom        map zoom level, used as tile precision
+     * @param maxClusters maximum number of clusters returned
+     * @return geotile_grid aggregation with centroid and minimum price
+     */
+    public static Aggregation aggregation(VehicleMapSearchRequestDto mapRequest, int zoom, int maxClusters) {
+        return Aggregation.of(a -> a
+                .geotileGrid(g -> g
+                        .field("locationGeo")
+                        .precision(zoom)
+                        .size(maxClusters)
+                        .bounds(b -> b.tlbr(t -> t
+                                .topLeft(l -> l.latlon(ll -> ll
+                                        .lat(mapRequest.getTopLeftLatitude())
+                                        .lon(mapRequest.getTopLeftLongitude())))
+                                .bottomRight(l -> l.latlon(ll -> ll
+                                        .lat(mapRequest.getBottomRightLatitude())
+                                        .lon(mapRequest.getBottomRightLongitude()))))))
+                .aggregations(CENTROID, Aggregation.of(c -> c.geoCentroid(gc -> gc.field("locationGeo"))))
+                .aggregations(MIN_PRICE, Aggregation.of(m -> m.min(mn -> mn.field("pricePerDay")))));
+    }
+
+    /**
+     * Reads the clusters from the aggregations of a search response.
+     *
+     * @param container aggregations returned by the search
+     * @return clusters, largest first
+     */
+    public static List<MapClusterDto> read(AggregationsContainer<?> container) {
+        if (!(container instanceof ElasticsearchAggregations esAggregations)) {
+            return List.of();
+        }
+        ElasticsearchAggregation clusters = esAggregations.get(CLUSTERS);
+        if (clusters == null || !clusters.aggregation().getAggregate().isGeotileGrid()) {
+            return List.of();
+        }
+
+        return clusters.aggregation().getAggregate().geotileGrid().buckets().array().stream()
+                .map(bucket -> {
+                    Aggregate centroid = bucket.aggregations().get(CENTROID);
+                    Aggregate minPrice = bucket.aggregations().get(MIN_PRICE);
+                    var location = centroid != null && centroid.isGeoCentroid()
+                            ? centroid.geoCentroid().location()
+                            : null;
+                    Double price = minPrice != null && minPrice.isMin() ? minPrice.min().value() : null;
+
+                    return MapClusterDto.builder()
+                            .tile(bucket.key())
+                            .count(bucket.docCount())
+                            .latitude(location != null && location.isLatlon() ? location.latlon().lat() : 0.0)
+                            .longitude(location != null && location.isLatlon() ? location.latlon().lon() : 0.0)
+                            .minPricePerDay(price != null && Double.isFinite(price) ? price : null)
+                            .build();
+                })
+                .toList();
+    }
+}
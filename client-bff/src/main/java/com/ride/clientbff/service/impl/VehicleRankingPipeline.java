@@ -0,0 +1,149 @@
+package com.ride.clientbff.service.impl;
+
+import com.ride.clientbff.dto.AdvancedVehicleSearchRequestDto;
+import com.ride.clientbff.dto.AvailableVehicleDto;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.Predicate;
+
+/**
+ * Single-pass filter, rank and page selection over priced search results.
+ * <p>
+ * Candidates are filtered and ranked in one pass with one composite comparator
+ * (user location first, then the requested sort key). Only the top
+ * {@code (pageNumber + 1) * pageSize} candidates are kept in a bounded heap, so
+ * the full candidate list is never sorted or copied. Ties keep the input order.
+ */
+public final class VehicleRankingPipeline {
+
+    private VehicleRankingPipeline() {
+    }
+
+    /**
+     * Filters, ranks and selects the requested page.
+     *
+     * @param vehicles      priced candidates in input order
+     * @param searchRequest filters, sorting and pagination
+     * @return the vehicles on the requested page and the number of matching candidates
+     */
+    public static RankedPage rank(List<AvailableVehicleDto> vehicles, AdvancedVehicleSearchRequestDto searchRequest) {
+        int pageSize = Math.max(1, searchRequest.getPageSize());
+        int pageStart = (int) Math.min(Integer.MAX_VALUE, (long) searchRequest.getPageNumber() * pageSize);
+        return rank(vehicles, searchRequest, pageStart, pageSize);
+    }
+
+    /**
+     * Filters, ranks and selects {@code count} vehicles starting at rank {@code offset}.
+     *
+     * @param vehicles      priced candidates in input order
+     * @param searchRequest filters and sorting; pagination fields are ignored
+     * @param offset        rank of the first vehicle to return
+     * @param count         maximum number of vehicles to return
+     * @return the selected vehicles and the number of matching candidates
+     */
+    public static RankedPage rank(List<AvailableVehicleDto> vehicles,
+                                  AdvancedVehicleSearchRequestDto searchRequest,
+                                  int offset,
+                                  int count) {
+        Predicate<AvailableVehicleDto> filter = filter(searchRequest);
+        Comparator<AvailableVehicleDto> order = comparator(searchRequest);
+        Comparator<Candidate> candidateOrder = Comparator.<Candidate, AvailableVehicleDto>comparing(
+                        Candidate::vehicle, order)
+                .thenComparingInt(Candidate::position);
+
+        int pageStart = Math.max(0, offset);
+        int limit = (int) Math.min(Integer.MAX_VALUE, (long) pageStart + Math.max(1, count));
+
+        // Max-heap on rank: the worst kept candidate is on top and is evicted first
+        PriorityQueue<Candidate> topCandidates = new PriorityQueue<>(
+                Math.min(limit, Math.max(1, vehicles.size())), candidateOrder.reversed());
+        long totalElements = 0;
+
+        for (int position = 0; position < vehicles.size(); position++) {
+            AvailableVehicleDto vehicle = vehicles.get(position);
+            if (!filter.test(vehicle)) {
+                continue;
+            }
+            totalElements++;
+
+            if (topCandidates.size() < limit) {
+                topCandidates.add(new Candidate(vehicle, position));
+            } else if (order.compare(vehicle, topCandidates.peek().vehicle()) < 0) {
+                // A later candidate that ties with the worst kept one ranks after it
+                topCandidates.poll();
+                topCandidates.add(new Candidate(vehicle, position));
+            }
+        }
+
+        List<Candidate> ranked = new ArrayList<>(topCandidates);
+        ranked.sort(candidateOrder);
+
+        List<AvailableVehicleDto> pageVehicles = new ArrayList<>(Math.max(0, ranked.size() - pageStart));
+        for (int i = pageStart; i < ranked.size(); i++) {
+            pageVehicles.add(ranked.get(i).vehicle());
+        }
+        return new RankedPage(pageVehicles, totalElements);
+    }
+
+    /**
+     * Builds the combined body type and price range filter.
+     *
+     * @param searchRequest search criteria with filters
+     * @return predicate accepting vehicles that pass every active filter
+     */
+    static Predicate<AvailableVehicleDto> filter(AdvancedVehicleSearchRequestDto searchRequest) {
+        String bodyType = searchRequest.getBodyTypeFilter();
+        Double minPrice = searchRequest.getMinPrice();
+        Double maxPrice = searchRequest.getMaxPrice();
+
+        return v -> (bodyType == null || bodyType.equalsIgnoreCase(v.getBodyType()))
+                && (minPrice == null || v.getPricePerDay() >= minPrice)
+                && (maxPrice == null || v.getPricePerDay() <= maxPrice);
+    }
+
+    /**
+     * Builds the composite ranking: vehicles at the user's location first, then the
+     * requested sort key and direction.
+     *
+     * @param searchRequest search criteria with sort options and user location
+     * @return composite comparator
+     */
+    static Comparator<AvailableVehicleDto> comparator(AdvancedVehicleSearchRequestDto searchRequest) {
+        Comparator<AvailableVehicleDto> sortKey = switch (searchRequest.getSortBy() == null ? "" : searchRequest.getSortBy()) {
+            case "location" -> Comparator.comparing(AvailableVehicleDto::getLocation,
+                    Comparator.nullsLast(Comparator.naturalOrder()));
+            case "bodyType" -> Comparator.comparing(AvailableVehicleDto::getBodyType,
+                    Comparator.nullsLast(Comparator.naturalOrder()));
+            case "totalCost" -> Comparator.comparingDouble(AvailableVehicleDto::getTotalCost);
+            default -> Comparator.comparingDouble(AvailableVehicleDto::getPricePerDay);
+        };
+
+        if ("DESC".equalsIgnoreCase(searchRequest.getSortDirection())) {
+            sortKey = sortKey.reversed();
+        }
+
+        String userLocation = searchRequest.getUserLocation();
+        if (userLocation == null || userLocation.isEmpty()) {
+            return sortKey;
+        }
+
+        Comparator<AvailableVehicleDto> userLocationFirst = Comparator.comparing(
+                v -> !userLocation.equalsIgnoreCase(v.getLocation()));
+        return userLocationFirst.thenComparing(sortKey);
+    }
+
+    /**
+     * One page of ranked vehicles.
+     *
+     * @param vehicles      vehicles on the requested page, in rank order
+     * @param totalElements number of candidates that passed the filters
+     */
+    public record RankedPage(List<AvailableVehicleDto> vehicles, long totalElements) {
+    }
+
+    private record Candidate(AvailableVehicleDto vehicle, int position) {
+    }
+}
@@ -0,0 +1,166 @@
+package com.ride.clientbff.service.impl;
+
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import com.ride.clientbff.dto.AdvancedVehicleSearchRequestDto;
+import com.ride.clientbff.dto.FacetBucketDto;
+import com.ride.clientbff.dto.VehicleSearchFacetsDto;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregation;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregations;
+import org.springframework.data.elasticsearch.core.AggregationsContainer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Facet aggregations for the vehicle search, computed in the same request as
+ * the hits.
+ * <p>
+ * The facet filters (body type and price range) are applied to the hits as a
+ * post_filter, not in the main query. Each facet is then wrapped in a filter
+ * aggregation with every facet filter except its own, so its counts respect the
+ * other active filters while still listing the alternatives to its own.
+ */
+public final class VehicleSearchFacets {
+
+    private static final String BODY_TYPE_FACET = "bodyTypeFacet";
+    private static final String ATTRIBUTE_FACETS = "attributeFacets";
+    private static final String PRICE_FACET = "priceFacet";
+    private static final String VALUES = "values";
+    private static final String HISTOGRAM = "histogram";
+    private static final String MIN = "min";
+    private static final String MAX = "max";
+    private static final int MAX_TERMS = 20;
+
+    private VehicleSearchFacets() {
+    }
+
+    /**
+     * Builds the post_filter with every active facet filter.
+     *
+     * @param searchRequest search criteria with filters
+     * @return the post_filter, or empty if no facet filter is active
+     */
+    public static Optional<Query> postFilter(AdvancedVehicleSearchRequestDto searchRequest) {
+        List<Query> filters = new ArrayList<>();
+        VehicleSearchQueries.bodyTypeFilter(searchRequest).ifPresent(filters::add);
+        VehicleSearchQueries.priceFilter(searchRequest).ifPresent(filters::add);
+        return filters.isEmpty() ? Optional.empty() : Optional.of(VehicleSearchQueries.allOf(filters));
+    }
+
+    /**
+     * Builds the facet aggregations.
+     *
+     * @param searchRequest search criteria with filters
+     * @param priceInterval width of a daily price histogram bucket
+     * @return aggregations by name
+     */
+    public static Map<String, Aggregation> aggregations(AdvancedVehicleSearchRequestDto searchRequest,
+            double priceInterval) {
+        Optional<Query> bodyType = VehicleSearchQueries.bodyTypeFilter(searchRequest);
+        Optional<Query> price = VehicleSearchQueries.priceFilter(searchRequest);
+        List<Query> allFilters = new ArrayList<>();
+        bodyType.ifPresent(allFilters::add);
+        price.ifPresent(allFilters::add);
+
+        Map<String, Aggregation> aggregations = new LinkedHashMap<>();
+
+        // Body type counts ignore the body type filter
+        aggregations.put(BODY_TYPE_FACET, Aggregation.of(a -> a
+                .filter(VehicleSearchQueries.allOf(price.stream().toList()))
+                .aggregations(VALUES, terms("bodyType"))));
+
+        // Attributes without a filter of their own respect every filter
+        aggregations.put(ATTRIBUTE_FACETS, Aggregation.of(a -> a
+                .filter(VehicleSearchQueries.allOf(allFilters))
+                .aggregations("transmission", terms("transmission"))
+                .aggregations("fuelType", terms("fuelType"))
+                .aggregations("seats", terms("seats"))
+                .aggregations("location", terms("location.keyword"))));
+
+        // Price distribution ignores the price filter
+        aggregations.put(PRICE_FACET, Aggregation.of(a -> a
+                .filter(VehicleSearchQueries.allOf(bodyType.stream().toList()))
+                .aggregations(HISTOGRAM, Aggregation.of(h -> h
+                        .histogram(hg -> hg.field("pricePerDay").interval(priceInterval).minDocCount(1))))
+                .aggregations(MIN, Aggregation.of(m -> m.min(mn -> mn.field("pricePerDay"))))
+                .aggregations(MAX, Aggregation.of(m -> m.max(mx -> mx.field("pricePerDay"))))));
+
+        return aggregations;
+    }
+
+    /**
+     * Reads the facets from the aggregations of a search response.
+     *
+     * @param container aggregations returned with the hits
+     * @return facets, with empty lists for facets missing from the response
+     */
+    public static VehicleSearchFacetsDto read(AggregationsContainer<?> container) {
+        Map<String, ElasticsearchAggregation> aggregations = container instanceof ElasticsearchAggregations esAggregations
+                ? esAggregations.aggregationsAsMap()
+                : Map.of();
+
+        Map<String, Aggregate> bodyTypeFacet = subAggregations(aggregations.get(BODY_TYPE_FACET));
+        Map<String, Aggregate> attributeFacets = subAggregations(aggregations.get(ATTRIBUTE_FACETS));
+        Map<String, Aggregate> priceFacet = subAggregations(aggregations.get(PRICE_FACET));
+
+        return VehicleSearchFacetsDto.builder()
+                .bodyTypes(buckets(bodyTypeFacet.get(VALUES)))
+                .transmissions(buckets(attributeFacets.get("transmission")))
+                .fuelTypes(buckets(attributeFacets.get("fuelType")))
+                .seats(buckets(attributeFacets.get("seats")))
+                .locations(buckets(attributeFacets.get("location")))
+                .priceHistogram(histogramBuckets(priceFacet.get(HISTOGRAM)))
+                .minPrice(priceFacet.get(MIN) != null && priceFacet.get(MIN).isMin()
+                        ? finite(priceFacet.get(MIN).min().value()) : null)
+                .maxPrice(priceFacet.get(MAX) != null && priceFacet.get(MAX).isMax()
+                        ? finite(priceFacet.get(MAX).max().value()) : null)
+                .build();
+    }
+
+    private static Aggregation terms(String field) {
+        return Aggregation.of(a -> a.terms(t -> t.field(field).size(MAX_TERMS)));
+    }
+
+    private static Map<String, Aggregate> subAggregations(ElasticsearchAggregation aggregation) {
+        if (aggregation == null || !aggregation.aggregation().getAggregate().isFilter()) {
+            return Map.of();
+        }
+        return aggregation.aggregation().getAggregate().filter().aggregations();
+    }
+
+    private static List<FacetBucketDto> buckets(Aggregate aggregate) {
+        if (aggregate == null) {
+            return List.of();
+        }
+        if (aggregate.isSterms()) {
+            return aggregate.sterms().buckets().array().stream()
+                    .map(b -> new FacetBucketDto(b.key().stringValue(), b.docCount()))
+                    .toList();
+        }
+        if (aggregate.isLterms()) {
+            return aggregate.lterms().buckets().array().stream()
+                    .map(b -> new FacetBucketDto(String.valueOf(b.key()), b.docCount()))
+                    .toList();
+        }
+        // Unmapped field
+        return List.of();
+    }
+
+    private static List<FacetBucketDto> histogramBuckets(Aggregate aggregate) {
+        if (aggregate == null || !aggregate.isHistogram()) {
+            return List.of();
+        }
+        return aggregate.histogram().buckets().array().stream()
+                .map(b -> new FacetBucketDto(String.valueOf(b.key()), b.docCount()))
+                .toList();
+    }
+
+    private static Double finite(Double value) {
+        return value != null && Double.isFinite(value) ? value : null;
+    }
+}
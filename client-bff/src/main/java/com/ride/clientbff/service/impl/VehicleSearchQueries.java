@@ -0,0 +1,161 @@
+package com.ride.clientbff.service.impl;
+
+import co.elastic.clients.elasticsearch._types.query_dsl.Operator;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import com.ride.clientbff.dto.AdvancedVehicleSearchRequestDto;
+import com.ride.clientbff.dto.VehicleMapSearchRequestDto;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Native query clauses for the vehicle search.
+ * <p>
+ * Every predicate is a non-scoring bool filter clause. Results are always sorted
+ * by a field, so no score is computed, and Elasticsearch can cache each clause
+ * in its filter cache and the whole request in the shard request cache.
+ */
+public final class VehicleSearchQueries {
+
+    private VehicleSearchQueries() {
+    }
+
+    /**
+     * Builds the filters that always restrict the hits: status, availability for
+     * the rental period, pickup location and geo radius.
+     *
+     * @param searchRequest search criteria
+     * @return filter clauses
+     */
+    public static List<Query> baseFilters(AdvancedVehicleSearchRequestDto searchRequest) {
+        return baseFilters(searchRequest, true);
+    }
+
+    /**
+     * Builds the base filters, optionally without the geo radius (the map view
+     * restricts by bounding box instead).
+     *
+     * @param searchRequest search criteria
+     * @param withRadius    whether to add the radius filter around latitude/longitude
+     * @return filter clauses
+     */
+    public static List<Query> baseFilters(AdvancedVehicleSearchRequestDto searchRequest, boolean withRadius) {
+        List<Query> filters = new ArrayList<>();
+
+        // Default to available
+        filters.add(Query.of(q -> q.term(t -> t.field("status").value("AVAILABLE"))));
+
+        availabilityFilter(searchRequest).ifPresent(filters::add);
+
+        // Location - Text based, every term of the requested location must match
+        String location = searchRequest.getPickupLocation();
+        if (location != null && !location.isEmpty()) {
+            filters.add(Query.of(q -> q.match(m -> m.field("location").query(location).operator(Operator.And))));
+        }
+
+        // Geospatial Search
+        if (withRadius && searchRequest.getLatitude() != null && searchRequest.getLongitude() != null) {
+            double radius = searchRequest.getRadiusKm() != null ? searchRequest.getRadiusKm() : 50.0;
+            filters.add(Query.of(q -> q.geoDistance(g -> g
+                    .field("locationGeo")
+                    .distance(radius + "km")
+                    .location(l -> l.latlon(ll -> ll
+                            .lat(searchRequest.getLatitude())
+                            .lon(searchRequest.getLongitude()))))));
+        }
+
+        return filters;
+    }
+
+    /**
+     * Builds the availability filter: the vehicle's availability window must cover
+     * the whole rental period. A missing bound means the window is open on that side.
+     *
+     * @param searchRequest search criteria with pickup and drop-off dates
+     * @return the filter, or empty if neither date is given
+     */
+    public static Optional<Query> availabilityFilter(AdvancedVehicleSearchRequestDto searchRequest) {
+        LocalDate pickupDate = searchRequest.getPickupDate();
+        LocalDate dropOffDate = searchRequest.getDropOffDate();
+        if (pickupDate == null && dropOffDate == null) {
+            return Optional.empty();
+        }
+        String rentalStart = (pickupDate != null ? pickupDate : dropOffDate).toString();
+        String rentalEnd = (dropOffDate != null ? dropOffDate : pickupDate).toString();
+
+        Query startsBefore = Query.of(q -> q.range(r -> r.date(d -> d.field("availableFrom").lte(rentalStart))));
+        Query endsAfter = Query.of(q -> q.range(r -> r.date(d -> d.field("availableUntil").gte(rentalEnd))));
+        return Optional.of(Query.of(q -> q.bool(b -> b
+                .filter(openEndedOr(startsBefore, "availableFrom"))
+                .filter(openEndedOr(endsAfter, "availableUntil")))));
+    }
+
+    /**
+     * Builds the body type filter.
+     *
+     * @param searchRequest search criteria
+     * @return the filter, or empty if no body type is requested
+     */
+    public static Optional<Query> bodyTypeFilter(AdvancedVehicleSearchRequestDto searchRequest) {
+        String bodyType = searchRequest.getBodyTypeFilter();
+        if (bodyType == null || bodyType.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(Query.of(q -> q.term(t -> t.field("bodyType").value(bodyType))));
+    }
+
+    /**
+     * Builds the daily price range filter.
+     *
+     * @param searchRequest search criteria
+     * @return the filter, or empty if neither bound is requested
+     */
+    public static Optional<Query> priceFilter(AdvancedVehicleSearchRequestDto searchRequest) {
+        Double minPrice = searchRequest.getMinPrice();
+        Double maxPrice = searchRequest.getMaxPrice();
+        if (minPrice == null && maxPrice == null) {
+            return Optional.empty();
+        }
+        return Optional.of(Query.of(q -> q.range(r -> r.number(n -> n
+                .field("pricePerDay")
+                .gte(minPrice)
+                .lte(maxPrice)))));
+    }
+
+    /**
+     * Builds the bounding box filter for the visible map area.
+     *
+     * @param mapRequest map search with the bounding box corners
+     * @return the filter
+     */
+    public static Query boundingBoxFilter(VehicleMapSearchRequestDto mapRequest) {
+        return Query.of(q -> q.geoBoundingBox(g -> g
+                .field("locationGeo")
+                .boundingBox(b -> b.tlbr(t -> t
+                        .topLeft(l -> l.latlon(ll -> ll
+                                .lat(mapRequest.getTopLeftLatitude())
+                                .lon(mapRequest.getTopLeftLongitude())))
+                        .bottomRight(l -> l.latlon(ll -> ll
+                                .lat(mapRequest.getBottomRightLatitude())
+                                .lon(mapRequest.getBottomRightLongitude())))))));
+    }
+
+    private static Query openEndedOr(Query bound, String field) {
+        return Query.of(q -> q.bool(b -> b
+                .should(bound)
+                .should(s -> s.bool(nb -> nb.mustNot(m -> m.exists(e -> e.field(field)))))
+                .minimumShouldMatch("1")));
+    }
+
+    /**
+     * Combines filters into one non-scoring query; no filters match everything.
+     *
+     * @param filters filter clauses
+     * @return bool query with the clauses in filter context
+     */
+    public static Query allOf(List<Query> filters) {
+        return Query.of(q -> q.bool(b -> b.filter(filters)));
+    }
+}
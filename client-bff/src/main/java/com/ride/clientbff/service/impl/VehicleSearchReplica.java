@@ -0,0 +1,457 @@
+package com.ride.clientbff.service.impl;
+
+import co.elastic.clients.elasticsearch._types.query_dsl.Operator;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import com.ride.clientbff.dto.AdvancedVehicleSearchRequestDto;
+import com.ride.clientbff.dto.VehicleSearchChangeEventDto;
+import com.ride.clientbff.repository.elasticsearch.VehicleSearchSummary;
+import com.ride.clientbff.repository.elasticsearch.VehiclesSearchDocument;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.Exchange;
+import org.springframework.amqp.rabbit.annotation.Queue;
+import org.springframework.amqp.rabbit.annotation.QueueBinding;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.listener.AsyncConsumerStartedEvent;
+import org.springframework.amqp.rabbit.listener.ListenerContainerConsumerFailedEvent;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHitsIterator;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * In-process read replica of the 'vehicle_search' documents in the hot regions.
+ * <p>
+ * The replica is bootstrapped from a scroll over the available documents whose
+ * location matches a hot region, the same location match the cluster search uses,
+ * and kept current by change events from vehicle-service over AMQP. Each
+ * instance binds its own anonymous queue, so every instance sees every event.
+ * A full rebuild runs when the consumer (re)starts and every resync interval,
+ * which heals any event missed while the consumer was down. Events arriving
+ * during a rebuild are replayed onto the rebuilt index.
+ * <p>
+ * The index is an in-memory map with an inverted index on location tokens. The
+ * replica answers the same filters and sorts as the cluster search for one
+ * region's inventory, by scanning only that region's documents. Requests it
+ * cannot answer exactly (cursors, facets, other sort fields, other regions)
+ * and any request while the replica is stale go to the cluster.
+ */
+@Component
+@ConditionalOnProperty(name = "search.replica.enabled", havingValue = "true")
+@Slf4j
+public class VehicleSearchReplica implements DisposableBean {
+
+    static final String LISTENER_ID = "vehicle-search-replica";
+
+    private static final String AVAILABLE = "AVAILABLE";
+    private static final int SCROLL_BATCH_SIZE = 1000;
+    private static final Set<String> SUPPORTED_SORTS = Set.of("pricePerDay", "location", "bodyType", "distance");
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final RabbitListenerEndpointRegistry listenerRegistry;
+    private final Set<String> hotRegions;
+    private final Duration maxStaleness;
+    private final Scheduler syncScheduler = Schedulers.newSingle("vehicle-search-replica");
+
+    private final Object writeLock = new Object();
+    private final AtomicBoolean rebuildRunning = new AtomicBoolean();
+    private volatile Index index = new Index();
+    private volatile ConcurrentLinkedQueue<VehicleSearchChangeEventDto> eventsDuringRebuild;
+    private volatile Instant lastSyncAt;
+    private volatile boolean consumerRunning;
+
+    private final Counter servedCounter;
+    private final Counter fallbackCounter;
+    private final Counter eventCounter;
+
+    public VehicleSearchReplica(
+            ElasticsearchOperations elasticsearchOperations,
+            RabbitListenerEndpointRegistry listenerRegistry,
+            MeterRegistry meterRegistry,
+            @Value("${search.replica.regions:}") List<String> hotRegions,
+            @Value("${search.replica.resync-interval:15m}") Duration resyncInterval,
+            @Value("${search.replica.max-staleness:30m}") Duration maxStaleness) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.listenerRegistry = listenerRegistry;
+        this.hotRegions = hotRegions.stream()
+                .map(VehicleSearchReplica::normalize)
+                .filter(region -> !region.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        this.maxStaleness = maxStaleness;
+
+        this.servedCounter = Counter.builder("search.replica.requests")
+                .description("Searches answered by the in-process replica")
+                .tag("outcome", "served")
+                .register(meterRegistry);
+        this.fallbackCounter = Counter.builder("search.replica.requests")
+                .description("Hot-region searches sent to the cluster because the replica was stale")
+                .tag("outcome", "stale")
+                .register(meterRegistry);
+        this.eventCounter = Counter.builder("search.replica.events")
+                .description("Change events applied to the in-process replica")
+                .register(meterRegistry);
+        Gauge.builder("search.replica.documents", this, replica -> replica.index.entries.size())
+                .description("Documents held by the in-process replica")
+                .register(meterRegistry);
+
+        syncScheduler.schedulePeriodically(this::rebuild,
+                resyncInterval.toMillis(), resyncInterval.toMillis(), TimeUnit.MILLISECONDS);
+        log.info("Vehicle search replica enabled for regions: {}", this.hotRegions);
+    }
+
+    /**
+     * Whether the replica can answer the request exactly and is fresh enough to.
+     *
+     * @param searchRequest search criteria
+     * @return true if {@link #search(AdvancedVehicleSearchRequestDto)} should be used
+     */
+    public boolean canServe(AdvancedVehicleSearchRequestDto searchRequest) {
+        if (!hotRegions.contains(normalize(searchRequest.getPickupLocation()))
+                || (searchRequest.getCursor() != null && !searchRequest.getCursor().isBlank())
+                || Boolean.TRUE.equals(searchRequest.getUseCursor())
+                || Boolean.TRUE.equals(searchRequest.getIncludeFacets())
+                || (searchRequest.getSortBy() != null && !SUPPORTED_SORTS.contains(searchRequest.getSortBy()))
+                || ("distance".equals(searchRequest.getSortBy())
+                        && (searchRequest.getLatitude() == null || searchRequest.getLongitude() == null))) {
+            // The cluster path answers these, or rejects them
+            return false;
+        }
+        if (!isFresh()) {
+            fallbackCounter.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Fresh means bootstrapped, consuming change events, and fully resynced
+     * within the maximum staleness.
+     *
+     * @return whether the replica reflects the index closely enough to serve
+     */
+    public boolean isFresh() {
+        Instant syncedAt = lastSyncAt;
+        return consumerRunning && syncedAt != null
+                && syncedAt.plus(maxStaleness).isAfter(Instant.now());
+    }
+
+    /**
+     * Filters, sorts and pages the replica documents like the cluster search.
+     *
+     * @param searchRequest search criteria accepted by {@link #canServe}
+     * @return the requested page and the number of matching documents
+     */
+    public ReplicaPage search(AdvancedVehicleSearchRequestDto searchRequest) {
+        servedCounter.increment();
+        Index current = index;
+
+        List<String> tokens = tokens(searchRequest.getPickupLocation());
+        Set<String> candidateIds = tokens.stream()
+                .map(token -> current.idsByLocationToken.getOrDefault(token, Set.of()))
+                .min(Comparator.comparingInt(Set::size))
+                .orElse(Set.of());
+
+        List<Entry> matches = new ArrayList<>();
+        for (String id : candidateIds) {
+            Entry entry = current.entries.get(id);
+            if (entry != null && entry.locationTokens().containsAll(tokens) && matches(entry, searchRequest)) {
+                matches.add(entry);
+            }
+        }
+        matches.sort(comparator(searchRequest));
+
+        int pageSize = Math.max(1, searchRequest.getPageSize());
+        int from = (int) Math.min(matches.size(), (long) searchRequest.getPageNumber() * pageSize);
+        int to = Math.min(matches.size(), from + pageSize);
+        // The cluster path returns the total cost as a script field; compute it the same way
+        OptionalLong rentalDays = VehicleTotalCost.rentalDays(searchRequest);
+        List<VehicleSearchSummary> hits = matches.subList(from, to).stream()
+                .map(entry -> rentalDays.isPresent() ? entry.withTotalCost(rentalDays.getAsLong()) : entry.summary())
+                .toList();
+        return new ReplicaPage(hits, matches.size());
+    }
+
+    /**
+     * Applies a change event from vehicle-service.
+     *
+     * @param event the change event
+     */
+    @RabbitListener(id = LISTENER_ID, bindings = @QueueBinding(
+            value = @Queue,
+            exchange = @Exchange(value = "${search.replica.exchange:vehicle.search.exchange}", type = "topic"),
+            key = "${search.replica.routing-key:vehicle.search.#}"))
+    public void onChange(VehicleSearchChangeEventDto event) {
+        synchronized (writeLock) {
+            apply(index, event);
+            ConcurrentLinkedQueue<VehicleSearchChangeEventDto> pending = eventsDuringRebuild;
+            if (pending != null) {
+                pending.add(event);
+            }
+        }
+        eventCounter.increment();
+    }
+
+    /**
+     * Rebuilds the replica whenever its consumer starts, since events may have
+     * been missed while it was not consuming.
+     */
+    @EventListener
+    public void onConsumerStarted(AsyncConsumerStartedEvent event) {
+        if (event.getSource() == listenerRegistry.getListenerContainer(LISTENER_ID)) {
+            consumerRunning = true;
+            syncScheduler.schedule(this::rebuild);
+        }
+    }
+
+    @EventListener
+    public void onConsumerFailed(ListenerContainerConsumerFailedEvent event) {
+        if (event.getSource() == listenerRegistry.getListenerContainer(LISTENER_ID)) {
+            log.warn("Vehicle search replica consumer failed, serving from the cluster: {}", event.getReason());
+            consumerRunning = false;
+        }
+    }
+
+    /**
+     * Rebuilds the index from a scroll over the available documents in the hot
+     * regions, then swaps it in and replays events received meanwhile. The region
+     * filter runs in Elasticsearch, so the rest of the inventory is not streamed.
+     */
+    void rebuild() {
+        if (!rebuildRunning.compareAndSet(false, true)) {
+            return;
+        }
+        eventsDuringRebuild = new ConcurrentLinkedQueue<>();
+        try {
+            Index rebuilt = new Index();
+            if (!hotRegions.isEmpty()) {
+                try (SearchHitsIterator<VehiclesSearchDocument> hits =
+                             elasticsearchOperations.searchForStream(hotRegionQuery(), VehiclesSearchDocument.class)) {
+                    hits.forEachRemaining(hit -> rebuilt.put(hit.getContent()));
+                }
+            }
+
+            synchronized (writeLock) {
+                eventsDuringRebuild.forEach(event -> apply(rebuilt, event));
+                eventsDuringRebuild = null;
+                index = rebuilt;
+                lastSyncAt = Instant.now();
+            }
+            log.info("Vehicle search replica rebuilt with {} documents", rebuilt.entries.size());
+        } catch (Exception e) {
+            eventsDuringRebuild = null;
+            log.error("Vehicle search replica rebuild failed, keeping the previous index: {}", e.getMessage(), e);
+        } finally {
+            rebuildRunning.set(false);
+        }
+    }
+
+    /**
+     * Available documents matching any hot region, every term of the region
+     * being required as in the cluster search's location filter.
+     */
+    private NativeQuery hotRegionQuery() {
+        List<Query> regions = hotRegions.stream()
+                .map(region -> Query.of(q -> q.match(m -> m.field("location").query(region).operator(Operator.And))))
+                .toList();
+        return NativeQuery.builder()
+                .withQuery(q -> q.bool(b -> b
+                        .filter(f -> f.term(t -> t.field("status").value(AVAILABLE)))
+                        .filter(f -> f.bool(r -> r.should(regions).minimumShouldMatch("1")))))
+                .withPageable(PageRequest.of(0, SCROLL_BATCH_SIZE))
+                .build();
+    }
+
+    @Override
+    public void destroy() {
+        syncScheduler.dispose();
+    }
+
+    private void apply(Index target, VehicleSearchChangeEventDto event) {
+        if ("DELETE".equalsIgnoreCase(event.getAction())) {
+            target.remove(event.getId());
+        } else if (event.getDocument() != null) {
+            target.put(event.getDocument());
+        }
+    }
+
+    private boolean matches(Entry entry, AdvancedVehicleSearchRequestDto searchRequest) {
+        VehicleSearchSummary vehicle = entry.summary();
+
+        if (searchRequest.getLatitude() != null && searchRequest.getLongitude() != null) {
+            double radius = searchRequest.getRadiusKm() != null ? searchRequest.getRadiusKm() : 50.0;
+            Double distance = ElasticsearchVehicleService.distanceKm(vehicle.getLocationGeo(),
+                    searchRequest.getLatitude(), searchRequest.getLongitude());
+            if (distance == null || distance > radius) {
+                return false;
+            }
+        }
+        if (searchRequest.getBodyTypeFilter() != null && !searchRequest.getBodyTypeFilter().isEmpty()
+                && !searchRequest.getBodyTypeFilter().equals(vehicle.getBodyType())) {
+            return false;
+        }
+        if (searchRequest.getMinPrice() != null || searchRequest.getMaxPrice() != null) {
+            Double price = vehicle.getPricePerDay();
+            if (price == null
+                    || (searchRequest.getMinPrice() != null && price < searchRequest.getMinPrice())
+                    || (searchRequest.getMaxPrice() != null && price > searchRequest.getMaxPrice())) {
+                return false;
+            }
+        }
+
+        LocalDate pickupDate = searchRequest.getPickupDate();
+        LocalDate dropOffDate = searchRequest.getDropOffDate();
+        if (pickupDate != null || dropOffDate != null) {
+            LocalDate rentalStart = pickupDate != null ? pickupDate : dropOffDate;
+            LocalDate rentalEnd = dropOffDate != null ? dropOffDate : pickupDate;
+            if ((vehicle.getAvailableFrom() != null && vehicle.getAvailableFrom().isAfter(rentalStart))
+                    || (vehicle.getAvailableUntil() != null && vehicle.getAvailableUntil().isBefore(rentalEnd))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Comparator<Entry> comparator(AdvancedVehicleSearchRequestDto searchRequest) {
+        String sortBy = searchRequest.getSortBy() == null ? "pricePerDay" : searchRequest.getSortBy();
+        Comparator<Entry> order = switch (sortBy) {
+            case "location" -> Comparator.comparing(Entry::location,
+                    Comparator.nullsLast(Comparator.naturalOrder()));
+            case "bodyType" -> Comparator.comparing(e -> e.summary().getBodyType(),
+                    Comparator.nullsLast(Comparator.naturalOrder()));
+            case "distance" -> Comparator.comparing(
+                    e -> ElasticsearchVehicleService.distanceKm(e.summary().getLocationGeo(),
+                            searchRequest.getLatitude(), searchRequest.getLongitude()),
+                    Comparator.nullsLast(Comparator.naturalOrder()));
+            default -> Comparator.comparing(e -> e.summary().getPricePerDay(),
+                    Comparator.nullsLast(Comparator.naturalOrder()));
+        };
+        if ("DESC".equalsIgnoreCase(searchRequest.getSortDirection())) {
+            order = order.reversed();
+        }
+        return order.thenComparing(Entry::id);
+    }
+
+    private boolean inHotRegion(List<String> locationTokens) {
+        return hotRegions.stream().anyMatch(region -> locationTokens.containsAll(tokens(region)));
+    }
+
+    private static List<String> tokens(String text) {
+        return Arrays.stream(normalize(text).split("[^\\p{L}\\p{N}]+"))
+                .filter(token -> !token.isEmpty())
+                .toList();
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * One page answered by the replica.
+     *
+     * @param hits          documents on the requested page, in sort order
+     * @param totalElements number of matching documents
+     */
+    public record ReplicaPage(List<VehicleSearchSummary> hits, long totalElements) {
+    }
+
+    private record Entry(String id, VehicleSearchSummary summary, String location, Set<String> locationTokens,
+                         Instant updatedAt, Double pricePerWeek, Double pricePerMonth, Double discountPercent) {
+
+        VehicleSearchSummary withTotalCost(long rentalDays) {
+            return summary.toBuilder()
+                    .totalCost(VehicleTotalCost.compute(summary.getPricePerDay(), pricePerWeek, pricePerMonth,
+                            discountPercent, rentalDays))
+                    .build();
+        }
+    }
+
+    /**
+     * Documents by ID plus an inverted index from location token to IDs.
+     */
+    private final class Index {
+
+        private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+        private final Map<String, Set<String>> idsByLocationToken = new ConcurrentHashMap<>();
+
+        void put(VehiclesSearchDocument document) {
+            Entry existing = entries.get(document.getId());
+            if (existing != null && existing.updatedAt() != null && document.getUpdatedAt() != null
+                    && document.getUpdatedAt().isBefore(existing.updatedAt())) {
+                // Out-of-order event, the replica already holds a newer version
+                return;
+            }
+
+            List<String> locationTokens = tokens(document.getLocation());
+            if (!AVAILABLE.equals(document.getStatus()) || !inHotRegion(locationTokens)) {
+                remove(document.getId());
+                return;
+            }
+
+            remove(document.getId());
+            Entry entry = new Entry(document.getId(), toSummary(document), document.getLocation(),
+                    Set.copyOf(locationTokens), document.getUpdatedAt(), document.getPricePerWeek(),
+                    document.getPricePerMonth(), document.getDiscountPercent());
+            entries.put(entry.id(), entry);
+            for (String token : entry.locationTokens()) {
+                idsByLocationToken.computeIfAbsent(token, t -> ConcurrentHashMap.newKeySet()).add(entry.id());
+            }
+        }
+
+        void remove(String id) {
+            Entry removed = entries.remove(id);
+            if (removed == null) {
+                return;
+            }
+            for (String token : removed.locationTokens()) {
+                Optional.ofNullable(idsByLocationToken.get(token)).ifPresent(ids -> ids.remove(id));
+            }
+        }
+
+        private VehicleSearchSummary toSummary(VehiclesSearchDocument document) {
+            return VehicleSearchSummary.builder()
+                    .id(document.getId())
+                    .vehicleId(document.getVehicleId())
+                    .make(document.getMake())
+                    .model(document.getModel())
+                    .year(document.getYear())
+                    .bodyType(document.getBodyType())
+                    .pricePerDay(document.getPricePerDay())
+                    .availableFrom(document.getAvailableFrom())
+                    .availableUntil(document.getAvailableUntil())
+                    .locationGeo(document.getLocationGeo())
+                    .firstImage(document.getImages() != null && !document.getImages().isEmpty()
+                            ? Objects.toString(document.getImages().get(0), null)
+                            : null)
+                    .build();
+        }
+    }
+}
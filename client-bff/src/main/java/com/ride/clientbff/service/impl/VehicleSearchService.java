@@ -5,11 +5,14 @@ import com.ride.clientbff.dto.VehicleSearchRequestDto;
 import com.ride.clientbff.dto.VehicleSearchResponseDto;
 import com.ride.clientbff.service.IVehicleSearchService;
 import com.ride.clientbff.service.IVehicleServiceClient;
-import com.ride.clientbff.service.IPricingServiceClient;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
@@ -18,6 +21,10 @@ import java.util.List;
 /**
  * Service implementation for vehicle search operations.
  * Orchestrates the search process by fetching available vehicles and their pricing.
+ * <p>
+ * Pricing is resolved by {@link HybridPricingResolver}: from fresh indexed
+ * prices when hybrid pricing is enabled, otherwise from the Pricing Service,
+ * with indexed prices as fallback while the Pricing Service is unavailable.
  */
 @Service
 @Slf4j
@@ -25,14 +32,27 @@ import java.util.List;
 public class VehicleSearchService implements IVehicleSearchService {
 
     private final IVehicleServiceClient vehicleServiceClient;
-    private final IPricingServiceClient pricingServiceClient;
+    private final HybridPricingResolver pricingResolver;
+
+    /**
+     * Maximum number of streamed vehicles priced together.
+     */
+    @Value("${search.pricing.batch.max-size:100}")
+    private int streamChunkSize;
+
+    /**
+     * How long a streamed chunk waits for more vehicles before it is priced.
+     */
+    @Value("${search.pricing.batch.window-ms:5}")
+    private long streamChunkWindowMs;
 
     /**
      * Searches for available vehicles based on search criteria.
      * <p>
      * Process:
      * 1. Get available vehicles from Vehicle Service based on location and date range
-     * 2. For each vehicle, fetch pricing using OwnersHasVehicle ID
+     * 2. Fetch pricing for all vehicles at once by OwnersHasVehicle ID, in one
+     *    bulk Pricing Service call when batching is enabled
      * 3. Calculate total rental cost based on number of days
      * 4. Return all vehicles with pricing information
      *
@@ -41,83 +61,176 @@ public class VehicleSearchService implements IVehicleSearchService {
      */
     @Override
     public VehicleSearchResponseDto searchAvailableVehicles(VehicleSearchRequestDto searchRequest) {
-        log.info("Searching vehicles for location: {}, from {} to {}",
-                searchRequest.getPickupLocation(),
-                searchRequest.getPickupDate(),
-                searchRequest.getDropOffDate());
-
-        try {
-            // Validate request
-            validateSearchRequest(searchRequest);
+        return searchAvailableVehiclesReactive(searchRequest).block();
+    }
 
-            // Step 1: Get available vehicles from Vehicle Service
-            List<AvailableVehicleDto> availableVehicles = vehicleServiceClient
-                    .getAvailableVehicles(
+    /**
+     * Non-blocking variant of {@link #searchAvailableVehicles(VehicleSearchRequestDto)}.
+     * <p>
+     * Runs the same vehicle and pricing fan-out and completes with the same
+     * response, including error responses, without blocking any thread.
+     *
+     * @param searchRequest search criteria (location, dates, times)
+     * @return Mono emitting the search response
+     */
+    @Override
+    public Mono<VehicleSearchResponseDto> searchAvailableVehiclesReactive(VehicleSearchRequestDto searchRequest) {
+        return Mono.defer(() -> {
+                    log.info("Searching vehicles for location: {}, from {} to {}",
                             searchRequest.getPickupLocation(),
+                            searchRequest.getPickupDate(),
+                            searchRequest.getDropOffDate());
+
+                    // Validate request
+                    validateSearchRequest(searchRequest);
+
+                    long rentalDays = calculateRentalDays(
                             searchRequest.getPickupDate(),
                             searchRequest.getDropOffDate()
-                    )
-                    .collectList()
-                    .block();
-
-            if (availableVehicles == null || availableVehicles.isEmpty()) {
-                log.warn("No vehicles found for location: {}", searchRequest.getPickupLocation());
-                return buildEmptyResponse("No vehicles available for the selected criteria");
-            }
-
-            log.info("Found {} available vehicles", availableVehicles.size());
-
-            // Step 2: Enrich vehicles with pricing information
-            List<AvailableVehicleDto> vehiclesWithPricing = new ArrayList<>();
-
-            for (AvailableVehicleDto vehicle : availableVehicles) {
-                try {
-                    // Fetch pricing using OwnersHasVehicle ID
-                    AvailableVehicleDto vehicleWithPrice = pricingServiceClient
-                            .getPricingForVehicle(vehicle.getOwnerHasVehicleId().toString())
-                            .block();
-
-                    if (vehicleWithPrice != null) {
-                        // Calculate rental duration and total cost
-                        long rentalDays = calculateRentalDays(
-                                searchRequest.getPickupDate(),
-                                searchRequest.getDropOffDate()
-                        );
-
-                        vehicleWithPrice.setRentalDays((int) rentalDays);
-                        vehicleWithPrice.setTotalCost(calculateTotalCost(vehicleWithPrice, rentalDays));
-
-                        vehiclesWithPricing.add(vehicleWithPrice);
-                        log.debug("Added vehicle with pricing: {}", vehicle.getOwnerHasVehicleId());
-                    }
-                } catch (Exception e) {
-                    log.warn("Failed to fetch pricing for vehicle {}: {}",
-                            vehicle.getOwnerHasVehicleId(), e.getMessage());
-                    // Continue with next vehicle if pricing fetch fails
-                }
-            }
-
-            if (vehiclesWithPricing.isEmpty()) {
-                log.warn("No vehicles with pricing found");
-                return buildEmptyResponse("Could not retrieve pricing for available vehicles");
-            }
-
-            log.info("Search completed. Found {} vehicles with pricing", vehiclesWithPricing.size());
-
-            return VehicleSearchResponseDto.builder()
-                    .vehicles(vehiclesWithPricing)
-                    .totalVehicles(vehiclesWithPricing.size())
-                    .success(true)
-                    .message("Found " + vehiclesWithPricing.size() + " available vehicles")
-                    .build();
-
-        } catch (IllegalArgumentException e) {
-            log.error("Invalid search request: {}", e.getMessage());
-            return buildErrorResponse("Invalid search criteria: " + e.getMessage());
-        } catch (Exception e) {
-            log.error("Error searching vehicles: {}", e.getMessage(), e);
-            return buildErrorResponse("Error searching vehicles: " + e.getMessage());
+                    );
+                    HybridPricingResolver.Tally pricingTally = pricingResolver.newTally();
+
+                    // Step 1 & 2: Collect available vehicles from Vehicle Service and price
+                    // them together, joining the prices back by OwnersHasVehicle ID
+                    return getAvailableVehicles(searchRequest)
+                            .collectList()
+                            .flatMap(vehicles -> enrichWithPricing(vehicles, rentalDays, pricingTally)
+                                    .doOnSuccess(vehiclesWithPricing -> pricingResolver.record(pricingTally))
+                                    .map(vehiclesWithPricing -> buildSearchResponse(
+                                            searchRequest, vehicles.size(), vehiclesWithPricing)));
+                })
+                .onErrorResume(IllegalArgumentException.class, e -> {
+                    log.error("Invalid search request: {}", e.getMessage());
+                    return Mono.just(buildErrorResponse("Invalid search criteria: " + e.getMessage()));
+                })
+                .onErrorResume(e -> {
+                    log.error("Error searching vehicles: {}", e.getMessage(), e);
+                    return Mono.just(buildErrorResponse("Error searching vehicles: " + e.getMessage()));
+                });
+    }
+
+    /**
+     * Builds the search response from the priced vehicles.
+     *
+     * @param searchRequest search criteria
+     * @param availableCount number of vehicles returned by Vehicle Service
+     * @param vehiclesWithPricing vehicles whose pricing was retrieved
+     * @return VehicleSearchResponseDto with the priced vehicles, or an empty response
+     */
+    private VehicleSearchResponseDto buildSearchResponse(
+            VehicleSearchRequestDto searchRequest,
+            int availableCount,
+            List<AvailableVehicleDto> vehiclesWithPricing) {
+
+        if (availableCount == 0) {
+            log.warn("No vehicles found for location: {}", searchRequest.getPickupLocation());
+            return buildEmptyResponse("No vehicles available for the selected criteria");
         }
+
+        log.info("Found {} available vehicles", availableCount);
+
+        if (vehiclesWithPricing.isEmpty()) {
+            log.warn("No vehicles with pricing found");
+            return buildEmptyResponse("Could not retrieve pricing for available vehicles");
+        }
+
+        log.info("Search completed. Found {} vehicles with pricing", vehiclesWithPricing.size());
+
+        return VehicleSearchResponseDto.builder()
+                .vehicles(vehiclesWithPricing)
+                .totalVehicles(vehiclesWithPricing.size())
+                .success(true)
+                .message("Found " + vehiclesWithPricing.size() + " available vehicles")
+                .build();
+    }
+
+    /**
+     * Streams available vehicles as soon as each one is priced.
+     * <p>
+     * Vehicles are priced in chunks as they arrive from Vehicle Service, up to
+     * {@code search.pricing.batch.max-size} per chunk, so each chunk takes one
+     * bulk pricing call and the results are never collected into a single list.
+     *
+     * @param searchRequest search criteria (location, dates, times)
+     * @return Flux emitting priced vehicles
+     */
+    @Override
+    public Flux<AvailableVehicleDto> streamAvailableVehicles(VehicleSearchRequestDto searchRequest) {
+        return Flux.defer(() -> {
+            log.info("Streaming vehicles for location: {}, from {} to {}",
+                    searchRequest.getPickupLocation(),
+                    searchRequest.getPickupDate(),
+                    searchRequest.getDropOffDate());
+
+            validateSearchRequest(searchRequest);
+
+            long rentalDays = calculateRentalDays(
+                    searchRequest.getPickupDate(),
+                    searchRequest.getDropOffDate()
+            );
+
+            HybridPricingResolver.Tally pricingTally = pricingResolver.newTally();
+
+            return getAvailableVehicles(searchRequest)
+                    .bufferTimeout(streamChunkSize, Duration.ofMillis(streamChunkWindowMs))
+                    .concatMap(vehicles -> enrichWithPricing(vehicles, rentalDays, pricingTally))
+                    .flatMapIterable(vehiclesWithPricing -> vehiclesWithPricing)
+                    .doOnComplete(() -> pricingResolver.record(pricingTally));
+        });
+    }
+
+    /**
+     * Gets available vehicles from Vehicle Service for the request's location and date range.
+     *
+     * @param searchRequest search criteria
+     * @return Flux emitting available vehicles without pricing
+     */
+    private Flux<AvailableVehicleDto> getAvailableVehicles(VehicleSearchRequestDto searchRequest) {
+        return vehicleServiceClient.getAvailableVehicles(
+                searchRequest.getPickupLocation(),
+                searchRequest.getPickupDate(),
+                searchRequest.getDropOffDate()
+        );
+    }
+
+    /**
+     * Fetches pricing for a set of vehicles and calculates their rental cost.
+     * <p>
+     * The vehicle IDs are resolved together and the pricing is copied onto the
+     * vehicles returned by Vehicle Service so the vehicle details are kept.
+     * Vehicles without pricing are skipped; the input order is preserved.
+     *
+     * @param vehicles the available vehicles from Vehicle Service
+     * @param rentalDays the number of rental days
+     * @param pricingTally pricing states of the current search
+     * @return Mono emitting the priced vehicles
+     */
+    private Mono<List<AvailableVehicleDto>> enrichWithPricing(List<AvailableVehicleDto> vehicles, long rentalDays,
+                                                              HybridPricingResolver.Tally pricingTally) {
+        List<String> ids = vehicles.stream()
+                .map(vehicle -> vehicle.getOwnerHasVehicleId().toString())
+                .distinct()
+                .toList();
+        return Mono.defer(() -> pricingResolver.resolveAll(ids, pricingTally))
+                .map(pricingById -> {
+                    List<AvailableVehicleDto> priced = new ArrayList<>(vehicles.size());
+                    for (AvailableVehicleDto vehicle : vehicles) {
+                        AvailableVehicleDto pricing = pricingById.get(vehicle.getOwnerHasVehicleId().toString());
+                        if (pricing == null) {
+                            log.debug("No pricing for vehicle: {}", vehicle.getOwnerHasVehicleId());
+                            continue;
+                        }
+                        vehicle.setPricePerDay(pricing.getPricePerDay());
+                        vehicle.setPricePerWeek(pricing.getPricePerWeek());
+                        vehicle.setPricePerMonth(pricing.getPricePerMonth());
+                        vehicle.setCurrencyCode(pricing.getCurrencyCode());
+                        vehicle.setPriceSource(pricing.getPriceSource());
+                        vehicle.setRentalDays((int) rentalDays);
+                        vehicle.setTotalCost(calculateTotalCost(vehicle, rentalDays));
+                        priced.add(vehicle);
+                    }
+                    return priced;
+                });
     }
 
     /**
@@ -176,7 +289,7 @@ public class VehicleSearchService implements IVehicleSearchService {
      * @param rentalDays the number of rental days
      * @return total rental cost
      */
-    private double calculateTotalCost(AvailableVehicleDto vehicle, long rentalDays) {
+    static double calculateTotalCost(AvailableVehicleDto vehicle, long rentalDays) {
         if (rentalDays <= 3) {
             // Use daily pricing for short rentals
             return vehicle.getPricePerDay() * rentalDays;
@@ -3,7 +3,9 @@ package com.ride.clientbff.service.impl;
 import com.ride.clientbff.dto.AvailableVehicleDto;
 import com.ride.clientbff.service.IVehicleServiceClient;
 import com.ride.clientbff.service.ServiceTokenService;
+import com.ride.clientbff.service.support.DownstreamGuard;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -15,6 +17,7 @@ import java.time.LocalDate;
 /**
  * Service client for interacting with the Vehicle Service API.
  * Handles retrieval of available vehicles based on search criteria.
+ * Calls run through the Vehicle Service {@link DownstreamGuard}.
  */
 @Service
 @Slf4j
@@ -25,8 +28,12 @@ public class VehicleServiceClient implements IVehicleServiceClient {
 
     private final ServiceTokenService serviceTokenService;
 
-    public VehicleServiceClient(ServiceTokenService serviceTokenService) {
+    private final DownstreamGuard vehicleServiceGuard;
+
+    public VehicleServiceClient(ServiceTokenService serviceTokenService,
+                                @Qualifier("vehicleServiceGuard") DownstreamGuard vehicleServiceGuard) {
         this.serviceTokenService = serviceTokenService;
+        this.vehicleServiceGuard = vehicleServiceGuard;
     }
 
     /**
@@ -50,7 +57,7 @@ public class VehicleServiceClient implements IVehicleServiceClient {
                 .flatMapMany(token -> {
                     log.debug("Access token obtained for vehicle service");
 
-                    return vehicleServiceWebClient.get()
+                    return vehicleServiceGuard.guard(vehicleServiceWebClient.get()
                             .uri(uriBuilder -> uriBuilder
                                     .path("/api/v1/vehicles/available")
                                     .queryParam("location", location)
@@ -61,7 +68,7 @@ public class VehicleServiceClient implements IVehicleServiceClient {
                             .headers(headers -> headers.setBearerAuth(token))
                             .accept(MediaType.APPLICATION_JSON)
                             .retrieve()
-                            .bodyToFlux(AvailableVehicleDto.class)
+                            .bodyToFlux(AvailableVehicleDto.class))
                             .doOnNext(vehicle -> log.debug("Retrieved vehicle: {}", vehicle.getOwnerHasVehicleId()))
                             .doOnError(e -> log.error("Error fetching vehicles: {}", e.getMessage(), e));
                 })
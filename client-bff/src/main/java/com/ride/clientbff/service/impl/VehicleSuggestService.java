@@ -0,0 +1,174 @@
+package com.ride.clientbff.service.impl;
+
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregate;
+import co.elastic.clients.elasticsearch._types.aggregations.Aggregation;
+import co.elastic.clients.elasticsearch._types.query_dsl.Query;
+import co.elastic.clients.elasticsearch._types.query_dsl.TextQueryType;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.ride.clientbff.dto.SuggestionDto;
+import com.ride.clientbff.dto.VehicleSuggestResponseDto;
+import com.ride.clientbff.repository.elasticsearch.VehicleSearchSummary;
+import com.ride.clientbff.service.IVehicleSuggestService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregation;
+import org.springframework.data.elasticsearch.client.elc.ElasticsearchAggregations;
+import org.springframework.data.elasticsearch.client.elc.NativeQuery;
+import org.springframework.data.elasticsearch.client.elc.NativeQueryBuilder;
+import org.springframework.data.elasticsearch.core.ElasticsearchOperations;
+import org.springframework.data.elasticsearch.core.SearchHits;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Typeahead suggestions for locations, makes and models.
+ * <p>
+ * One size-0 Elasticsearch request matches the prefix against the
+ * search_as_you_type "suggest" sub-fields and returns the most common distinct
+ * values per field from terms aggregations, counting available vehicles only.
+ * Results are kept in a small local cache; its frequency-based eviction keeps
+ * the popular prefixes, which are answered without a cluster round trip.
+ */
+@Service
+@Slf4j
+public class VehicleSuggestService implements IVehicleSuggestService {
+
+    private static final List<String> SUGGEST_FIELDS = List.of("location", "make", "model");
+    private static final String VALUES = "values";
+    private static final int MAX_LIMIT = 20;
+
+    private final ElasticsearchOperations elasticsearchOperations;
+    private final Scheduler blockingCallScheduler;
+    private final Cache<String, VehicleSuggestResponseDto> suggestions;
+    private final int minPrefixLength;
+
+    public VehicleSuggestService(
+            ElasticsearchOperations elasticsearchOperations,
+            Scheduler blockingCallScheduler,
+            MeterRegistry meterRegistry,
+            @Value("${search.suggest.min-prefix-length:2}") int minPrefixLength,
+            @Value("${search.suggest.cache.max-size:5000}") long cacheMaxSize,
+            @Value("${search.suggest.cache.ttl:5m}") Duration cacheTtl) {
+        this.elasticsearchOperations = elasticsearchOperations;
+        this.blockingCallScheduler = blockingCallScheduler;
+        this.minPrefixLength = minPrefixLength;
+        this.suggestions = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, suggestions, "search-suggest", List.of());
+    }
+
+    @Override
+    public VehicleSuggestResponseDto suggest(String prefix, int limit) {
+        String normalizedPrefix = normalize(prefix);
+        int normalizedLimit = Math.clamp(limit, 1, MAX_LIMIT);
+
+        if (normalizedPrefix.length() < minPrefixLength) {
+            return emptyResponse(normalizedPrefix);
+        }
+        return suggestions.get(cacheKey(normalizedPrefix, normalizedLimit),
+                key -> fetchSuggestions(normalizedPrefix, normalizedLimit));
+    }
+
+    /**
+     * Cached prefixes are answered on the calling thread; only cache misses move
+     * to the blocking-call scheduler for the Elasticsearch request.
+     */
+    @Override
+    public Mono<VehicleSuggestResponseDto> suggestReactive(String prefix, int limit) {
+        String normalizedPrefix = normalize(prefix);
+        int normalizedLimit = Math.clamp(limit, 1, MAX_LIMIT);
+
+        if (normalizedPrefix.length() < minPrefixLength) {
+            return Mono.just(emptyResponse(normalizedPrefix));
+        }
+        return Mono.justOrEmpty(suggestions.getIfPresent(cacheKey(normalizedPrefix, normalizedLimit)))
+                .switchIfEmpty(Mono.fromCallable(() -> suggest(normalizedPrefix, normalizedLimit))
+                        .subscribeOn(blockingCallScheduler));
+    }
+
+    /**
+     * Runs the suggest query.
+     * <p>
+     * Process:
+     * 1. Filter to available vehicles, without fetching any hits
+     * 2. Per field, match the prefix with bool_prefix on the search_as_you_type
+     *    sub-field and its shingles
+     * 3. Collect the most common matching values from the keyword sub-field
+     */
+    private VehicleSuggestResponseDto fetchSuggestions(String prefix, int limit) {
+        log.debug("Fetching suggestions for prefix: {}", prefix);
+
+        NativeQueryBuilder builder = NativeQuery.builder()
+                .withQuery(Query.of(q -> q.bool(b -> b
+                        .filter(f -> f.term(t -> t.field("status").value("AVAILABLE"))))))
+                .withMaxResults(0)
+                .withRequestCache(true);
+        for (String field : SUGGEST_FIELDS) {
+            builder.withAggregation(field, Aggregation.of(a -> a
+                    .filter(f -> f.multiMatch(m -> m
+                            .query(prefix)
+                            .type(TextQueryType.BoolPrefix)
+                            .fields(field + ".suggest", field + ".suggest._2gram", field + ".suggest._3gram")))
+                    .aggregations(VALUES, Aggregation.of(t -> t.terms(tt -> tt
+                            .field(field + ".keyword")
+                            .size(limit))))));
+        }
+
+        SearchHits<VehicleSearchSummary> searchHits = elasticsearchOperations.search(builder.build(),
+                VehicleSearchSummary.class);
+        Map<String, ElasticsearchAggregation> aggregations =
+                searchHits.getAggregations() instanceof ElasticsearchAggregations esAggregations
+                        ? esAggregations.aggregationsAsMap()
+                        : Map.of();
+
+        return VehicleSuggestResponseDto.builder()
+                .prefix(prefix)
+                .locations(readSuggestions(aggregations, "location"))
+                .makes(readSuggestions(aggregations, "make"))
+                .models(readSuggestions(aggregations, "model"))
+                .build();
+    }
+
+    private List<SuggestionDto> readSuggestions(Map<String, ElasticsearchAggregation> aggregations, String field) {
+        ElasticsearchAggregation aggregation = aggregations.get(field);
+        if (aggregation == null || !aggregation.aggregation().getAggregate().isFilter()) {
+            return List.of();
+        }
+        Aggregate values = aggregation.aggregation().getAggregate().filter().aggregations().get(VALUES);
+        if (values == null || !values.isSterms()) {
+            return List.of();
+        }
+        return values.sterms().buckets().array().stream()
+                .map(bucket -> new SuggestionDto(bucket.key().stringValue(), field, bucket.docCount()))
+                .toList();
+    }
+
+    private static String normalize(String prefix) {
+        return prefix == null ? "" : prefix.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String cacheKey(String prefix, int limit) {
+        return limit + ":" + prefix;
+    }
+
+    private static VehicleSuggestResponseDto emptyResponse(String prefix) {
+        return VehicleSuggestResponseDto.builder()
+                .prefix(prefix)
+                .locations(List.of())
+                .makes(List.of())
+                .models(List.of())
+                .build();
+    }
+}
@@ -0,0 +1,147 @@
+package com.ride.clientbff.service.impl;
+
+import co.elastic.clients.elasticsearch._types.ScriptSortType;
+import co.elastic.clients.elasticsearch._types.SortOptions;
+import co.elastic.clients.elasticsearch._types.SortOrder;
+import co.elastic.clients.json.JsonData;
+import com.ride.clientbff.dto.AdvancedVehicleSearchRequestDto;
+import org.springframework.data.elasticsearch.core.query.ScriptData;
+import org.springframework.data.elasticsearch.core.query.ScriptType;
+import org.springframework.data.elasticsearch.core.query.ScriptedField;
+
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.OptionalLong;
+
+/**
+ * Total rental cost for the requested period, computed by Elasticsearch from the
+ * indexed prices.
+ * <p>
+ * The script applies the same tiering as the pricing path: daily price up to 3
+ * days, weekly price for full weeks up to 30 days, monthly price for full months
+ * beyond. A missing weekly or monthly price falls back to 7 or 30 daily prices.
+ * The indexed discount is applied to the total. The same script sorts the hits
+ * and returns each hit's total, so ordering and displayed totals always agree.
+ * {@link #compute} is the same calculation for results served outside
+ * Elasticsearch.
+ */
+public final class VehicleTotalCost {
+
+    /**
+     * Sort key requesting the total cost order.
+     */
+    public static final String SORT_FIELD = "totalCost";
+
+    static final String SCRIPT = """
+            if (doc['pricePerDay'].size() == 0) { return params.missing; }
+            long days = params.rentalDays;
+            double day = doc['pricePerDay'].value;
+            double week = doc['pricePerWeek'].size() == 0 ? day * 7 : doc['pricePerWeek'].value;
+            double month = doc['pricePerMonth'].size() == 0 ? day * 30 : doc['pricePerMonth'].value;
+            double total;
+            if (days <= 3) {
+                total = day * days;
+            } else if (days <= 30) {
+                total = week * (days / 7) + day * (days % 7);
+            } else {
+                long rest = days % 30;
+                total = month * (days / 30) + week * (rest / 7) + day * (rest % 7);
+            }
+            double discount = doc['discountPercent'].size() == 0 ? 0 : doc['discountPercent'].value;
+            return total * (1 - discount / 100.0);
+            """;
+
+    private VehicleTotalCost() {
+    }
+
+    /**
+     * Whether the request sorts by total cost.
+     *
+     * @param searchRequest search criteria
+     * @return true for the total cost sort
+     */
+    public static boolean isSortedBy(AdvancedVehicleSearchRequestDto searchRequest) {
+        return SORT_FIELD.equalsIgnoreCase(searchRequest.getSortBy());
+    }
+
+    /**
+     * Number of rental days, at least 1, as in the pricing path.
+     *
+     * @param searchRequest search criteria with pickup and drop-off dates
+     * @return rental days, or empty if either date is missing
+     */
+    public static OptionalLong rentalDays(AdvancedVehicleSearchRequestDto searchRequest) {
+        if (searchRequest.getPickupDate() == null || searchRequest.getDropOffDate() == null) {
+            return OptionalLong.empty();
+        }
+        long days = ChronoUnit.DAYS.between(searchRequest.getPickupDate(), searchRequest.getDropOffDate());
+        return OptionalLong.of(Math.max(days, 1));
+    }
+
+    /**
+     * Builds the script sort by total cost. Vehicles without a daily price sort
+     * last in both directions.
+     *
+     * @param searchRequest search criteria with dates and sort direction
+     * @return script sort
+     * @throws IllegalArgumentException if either date is missing
+     */
+    public static SortOptions sort(AdvancedVehicleSearchRequestDto searchRequest) {
+        long days = rentalDays(searchRequest).orElseThrow(() ->
+                new IllegalArgumentException("Sorting by total cost requires pickup and drop-off dates"));
+        boolean descending = "DESC".equalsIgnoreCase(searchRequest.getSortDirection());
+        double missing = descending ? -1 : Double.MAX_VALUE;
+
+        return SortOptions.of(s -> s.script(ss -> ss
+                .type(ScriptSortType.Number)
+                .order(descending ? SortOrder.Desc : SortOrder.Asc)
+                .script(sc -> sc
+                        .lang("painless")
+                        .source(SCRIPT)
+                        .params("rentalDays", JsonData.of(days))
+                        .params("missing", JsonData.of(missing)))));
+    }
+
+    /**
+     * Computes the total cost in Java, exactly as the script does.
+     *
+     * @param pricePerDay     indexed daily price
+     * @param pricePerWeek    indexed weekly price, or null for 7 daily prices
+     * @param pricePerMonth   indexed monthly price, or null for 30 daily prices
+     * @param discountPercent indexed discount, or null for none
+     * @param rentalDays      number of rental days
+     * @return total cost, or null without a daily price
+     */
+    public static Double compute(Double pricePerDay, Double pricePerWeek, Double pricePerMonth,
+                                 Double discountPercent, long rentalDays) {
+        if (pricePerDay == null) {
+            return null;
+        }
+        double day = pricePerDay;
+        double week = pricePerWeek != null ? pricePerWeek : day * 7;
+        double month = pricePerMonth != null ? pricePerMonth : day * 30;
+        double total;
+        if (rentalDays <= 3) {
+            total = day * rentalDays;
+        } else if (rentalDays <= 30) {
+            total = week * (rentalDays / 7) + day * (rentalDays % 7);
+        } else {
+            long rest = rentalDays % 30;
+            total = month * (rentalDays / 30) + week * (rest / 7) + day * (rest % 7);
+        }
+        double discount = discountPercent != null ? discountPercent : 0;
+        return total * (1 - discount / 100.0);
+    }
+
+    /**
+     * Builds the script field returning each hit's total cost, or null without a
+     * daily price.
+     *
+     * @param rentalDays number of rental days
+     * @return script field named {@value #SORT_FIELD}
+     */
+    public static ScriptedField scriptedField(long rentalDays) {
+        return new ScriptedField(SORT_FIELD,
+                new ScriptData(ScriptType.INLINE, "painless", SCRIPT, null, Map.of("rentalDays", rentalDays)));
+    }
+}
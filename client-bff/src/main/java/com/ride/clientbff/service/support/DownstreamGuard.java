@@ -0,0 +1,94 @@
+package com.ride.clientbff.service.support;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.timelimiter.TimeLimiterOperator;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Bulkhead, circuit breaker and time limiter for calls to one downstream service.
+ * <p>
+ * The bulkhead caps concurrent calls and rejects the excess at once instead of
+ * queueing it. The time limiter bounds each call well below the WebClient
+ * response timeout, and a timed-out call counts as a failure for the circuit
+ * breaker. Once the breaker opens, calls fail fast until it half-opens again.
+ * All three are configured per service under the resilience4j properties,
+ * using the service name as instance name.
+ */
+public class DownstreamGuard {
+
+    private final Bulkhead bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final TimeLimiter timeLimiter;
+
+    private DownstreamGuard(Bulkhead bulkhead, CircuitBreaker circuitBreaker, TimeLimiter timeLimiter) {
+        this.bulkhead = bulkhead;
+        this.circuitBreaker = circuitBreaker;
+        this.timeLimiter = timeLimiter;
+    }
+
+    /**
+     * Creates the guard for a service from the resilience4j registries.
+     *
+     * @param name                    service name, the instance name in each registry
+     * @param circuitBreakerRegistry  circuit breaker registry
+     * @param bulkheadRegistry        bulkhead registry
+     * @param timeLimiterRegistry     time limiter registry
+     * @return guard for the service
+     */
+    public static DownstreamGuard of(String name,
+                                     CircuitBreakerRegistry circuitBreakerRegistry,
+                                     BulkheadRegistry bulkheadRegistry,
+                                     TimeLimiterRegistry timeLimiterRegistry) {
+        return new DownstreamGuard(
+                bulkheadRegistry.bulkhead(name),
+                circuitBreakerRegistry.circuitBreaker(name),
+                timeLimiterRegistry.timeLimiter(name));
+    }
+
+    /**
+     * Guards a single-value call.
+     *
+     * @param call the downstream call
+     * @return the call, failing with {@link BulkheadFullException} or
+     *         {@link CallNotPermittedException} when it is not attempted
+     */
+    public <T> Mono<T> guard(Mono<T> call) {
+        return call.transformDeferred(TimeLimiterOperator.of(timeLimiter))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(BulkheadOperator.of(bulkhead));
+    }
+
+    /**
+     * Guards a streaming call; the bulkhead permit is held until the stream ends.
+     *
+     * @param call the downstream call
+     * @return the call, failing with {@link BulkheadFullException} or
+     *         {@link CallNotPermittedException} when it is not attempted
+     */
+    public <T> Flux<T> guard(Flux<T> call) {
+        return call.transformDeferred(TimeLimiterOperator.of(timeLimiter))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(BulkheadOperator.of(bulkhead));
+    }
+
+    /**
+     * Whether an error means the call was shed by the guard rather than failed
+     * by the service: the breaker is open or the bulkhead is full.
+     *
+     * @param error error from a guarded call
+     * @return true if the call was never sent
+     */
+    public static boolean isRejected(Throwable error) {
+        return error instanceof CallNotPermittedException || error instanceof BulkheadFullException;
+    }
+}
@@ -0,0 +1,217 @@
+package com.ride.clientbff.service.support;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Sends a duplicate of a slow read and takes whichever answer comes first.
+ * <p>
+ * The hedge delay adapts to the target: it is the configured percentile of the
+ * most recent latencies, never below the minimum delay. Until enough latencies
+ * are recorded, nothing is hedged.
+ * <p>
+ * A budget caps the extra load. Every read earns {@code budgetPercent / 100} of
+ * a hedge and every hedge spends one, so hedges stay at that share of reads
+ * over time. At most a small burst of saved-up hedges can be spent at once.
+ * <p>
+ * Metrics, tagged with the target name: hedge.requests{outcome=sent|won|no_budget}
+ * and hedge.delay (current threshold in milliseconds).
+ */
+public class HedgePolicy {
+
+    private static final double MAX_SAVED_HEDGES = 10;
+
+    private final boolean enabled;
+    private final double percentile;
+    private final double budgetPerRead;
+    private final Duration minDelay;
+    private final int minSamples;
+    private final int recomputeEvery;
+
+    private final long[] latencyNanos;
+    private int nextSample;
+    private int samples;
+    private double budget;
+    private volatile long thresholdNanos = -1;
+
+    private final Counter hedgesSent;
+    private final Counter hedgesWon;
+    private final Counter hedgesSkipped;
+
+    /**
+     * @param name          target name used as the metric tag
+     * @param enabled       whether to hedge at all
+     * @param percentile    latency percentile used as the hedge delay (e.g. 0.95)
+     * @param budgetPercent hedges allowed per 100 reads
+     * @param minDelay      lower bound for the hedge delay
+     * @param windowSize    number of recent latencies the percentile is taken over
+     * @param minSamples    latencies needed before the first hedge
+     * @param meterRegistry registry for the hedge metrics
+     */
+    public HedgePolicy(String name,
+                       boolean enabled,
+                       double percentile,
+                       double budgetPercent,
+                       Duration minDelay,
+                       int windowSize,
+                       int minSamples,
+                       MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.percentile = Math.min(Math.max(percentile, 0.5), 0.999);
+        this.budgetPerRead = Math.max(0, budgetPercent) / 100.0;
+        this.minDelay = minDelay;
+        this.latencyNanos = new long[Math.max(1, windowSize)];
+        this.minSamples = Math.min(Math.max(1, minSamples), latencyNanos.length);
+        this.recomputeEvery = Math.max(1, latencyNanos.length / 20);
+
+        this.hedgesSent = Counter.builder("hedge.requests")
+                .description("Duplicate reads sent after the hedge delay")
+                .tags("target", name, "outcome", "sent")
+                .register(meterRegistry);
+        this.hedgesWon = Counter.builder("hedge.requests")
+                .description("Duplicate reads that answered before the original")
+                .tags("target", name, "outcome", "won")
+                .register(meterRegistry);
+        this.hedgesSkipped = Counter.builder("hedge.requests")
+                .description("Hedges not sent because the budget was spent")
+                .tags("target", name, "outcome", "no_budget")
+                .register(meterRegistry);
+        Gauge.builder("hedge.delay", this, policy -> policy.thresholdNanos / 1_000_000.0)
+                .description("Current hedge delay in milliseconds, negative until enough latencies are recorded")
+                .tag("target", name)
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs a read, hedging it if it is still pending after the hedge delay.
+     * The loser is cancelled.
+     *
+     * @param primary the read
+     * @param hedge   creates the duplicate read, preferably against another instance
+     * @return the first value emitted by either read
+     */
+    public <T> Mono<T> execute(Mono<T> primary, Supplier<Mono<T>> hedge) {
+        return execute(primary, hedge, value -> { });
+    }
+
+    /**
+     * Runs a read holding a resource, such as a response with an unread body,
+     * hedging it if it is still pending after the hedge delay.
+     * <p>
+     * The loser is cancelled. If both reads produce a value, the later one is
+     * passed to {@code release} instead of being dropped.
+     *
+     * @param primary the read
+     * @param hedge   creates the duplicate read, preferably against another instance
+     * @param release releases a value that lost the race
+     * @return the first value emitted by either read
+     */
+    public <T> Mono<T> execute(Mono<T> primary, Supplier<Mono<T>> hedge, Consumer<? super T> release) {
+        if (!enabled) {
+            return primary;
+        }
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            earnBudget();
+            Optional<Duration> delay = delay();
+            if (delay.isEmpty()) {
+                return primary.doOnNext(value -> recordLatency(System.nanoTime() - start));
+            }
+
+            // A primary that fails before the delay is not hedged, its error is returned as is
+            Sinks.One<Boolean> primaryFailed = Sinks.one();
+            // firstWithValue drops a value that arrives after the other read won, so
+            // the race is claimed here and the later value released
+            AtomicBoolean claimed = new AtomicBoolean();
+            Mono<T> timedPrimary = primary
+                    .flatMap(value -> claim(claimed, value, release))
+                    .doOnNext(value -> recordLatency(System.nanoTime() - start))
+                    .doOnError(e -> primaryFailed.tryEmitValue(true));
+            Mono<T> hedged = Mono.delay(delay.get())
+                    .takeUntilOther(primaryFailed.asMono())
+                    .filter(tick -> tryAcquireHedge())
+                    .flatMap(tick -> hedge.get())
+                    .flatMap(value -> claim(claimed, value, release))
+                    .doOnNext(value -> {
+                        hedgesWon.increment();
+                        recordLatency(System.nanoTime() - start);
+                    });
+            // An empty hedge (no budget) leaves the outcome to the primary
+            return Mono.firstWithValue(timedPrimary, hedged)
+                    .onErrorMap(NoSuchElementException.class::isInstance, HedgePolicy::firstFailure);
+        });
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The current hedge delay.
+     *
+     * @return the delay, or empty until enough latencies are recorded
+     */
+    public Optional<Duration> delay() {
+        long threshold = thresholdNanos;
+        return threshold < 0 ? Optional.empty() : Optional.of(Duration.ofNanos(threshold));
+    }
+
+    private static <T> Mono<T> claim(AtomicBoolean claimed, T value, Consumer<? super T> release) {
+        if (claimed.compareAndSet(false, true)) {
+            return Mono.just(value);
+        }
+        release.accept(value);
+        return Mono.empty();
+    }
+
+    /**
+     * Unwraps the error of the read that failed first from the error raised when
+     * no read produced a value.
+     */
+    private static Throwable firstFailure(Throwable noValue) {
+        if (noValue.getSuppressed().length > 0) {
+            return noValue.getSuppressed()[0];
+        }
+        return noValue.getCause() != null ? noValue.getCause() : noValue;
+    }
+
+    private synchronized void earnBudget() {
+        budget = Math.min(MAX_SAVED_HEDGES, budget + budgetPerRead);
+    }
+
+    private synchronized boolean tryAcquireHedge() {
+        if (budget < 1) {
+            hedgesSkipped.increment();
+            return false;
+        }
+        budget -= 1;
+        hedgesSent.increment();
+        return true;
+    }
+
+    private synchronized void recordLatency(long nanos) {
+        latencyNanos[nextSample] = nanos;
+        nextSample = (nextSample + 1) % latencyNanos.length;
+        samples = Math.min(samples + 1, latencyNanos.length);
+        // Recompute after every 5% of the window rather than on every read
+        if (samples < minSamples || nextSample % recomputeEvery != 0 && thresholdNanos >= 0) {
+            return;
+        }
+        long[] window = Arrays.copyOf(latencyNanos, samples);
+        Arrays.sort(window);
+        long percentileNanos = window[(int) Math.min(window.length - 1, Math.ceil(percentile * window.length) - 1)];
+        thresholdNanos = Math.max(minDelay.toNanos(), percentileNanos);
+    }
+}
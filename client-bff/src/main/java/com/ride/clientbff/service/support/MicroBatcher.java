@@ -0,0 +1,185 @@
+package com.ride.clientbff.service.support;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Collects single-key lookups arriving within a short window and resolves them
+ * with one bulk call.
+ * <p>
+ * Lookups for the same key within a window share one pending result, so
+ * duplicate keys from concurrent callers are sent only once. A batch is flushed
+ * when the window elapses or when it reaches the maximum batch size, whichever
+ * comes first.
+ * <p>
+ * With a {@link MeterRegistry}, each flush records the batch size, how long each
+ * lookup waited for its batch, and the number of lookups sent, tagged with the
+ * batcher name.
+ *
+ * @param <K> lookup key type
+ * @param <V> looked-up value type
+ */
+@Slf4j
+public class MicroBatcher<K, V> {
+
+    private final String name;
+    private final Function<Set<K>, Mono<Map<K, V>>> bulkLoader;
+    private final Duration window;
+    private final int maxBatchSize;
+    private final Scheduler scheduler;
+    private final DistributionSummary batchSize;
+    private final Timer waitTime;
+    private final Counter lookups;
+
+    private final Object lock = new Object();
+    private Map<K, Pending<V>> pending = new HashMap<>();
+    private boolean flushScheduled;
+
+    /**
+     * @param name         name used in log messages
+     * @param bulkLoader   loads values for a set of keys; keys missing from the result resolve empty
+     * @param window       how long to collect lookups before flushing
+     * @param maxBatchSize flush immediately once this many distinct keys are pending
+     */
+    public MicroBatcher(String name,
+                        Function<Set<K>, Mono<Map<K, V>>> bulkLoader,
+                        Duration window,
+                        int maxBatchSize) {
+        this(name, bulkLoader, window, maxBatchSize, Schedulers.parallel());
+    }
+
+    public MicroBatcher(String name,
+                        Function<Set<K>, Mono<Map<K, V>>> bulkLoader,
+                        Duration window,
+                        int maxBatchSize,
+                        Scheduler scheduler) {
+        this(name, bulkLoader, window, maxBatchSize, scheduler, null);
+    }
+
+    /**
+     * @param meterRegistry registry for the batch metrics, or null for none
+     */
+    public MicroBatcher(String name,
+                        Function<Set<K>, Mono<Map<K, V>>> bulkLoader,
+                        Duration window,
+                        int maxBatchSize,
+                        Scheduler scheduler,
+                        MeterRegistry meterRegistry) {
+        this.name = name;
+        this.bulkLoader = bulkLoader;
+        this.window = window;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.scheduler = scheduler;
+        if (meterRegistry != null) {
+            this.batchSize = DistributionSummary.builder("batcher.batch.size")
+                    .description("Distinct keys per bulk call")
+                    .tag("batcher", name)
+                    .publishPercentiles(0.5, 0.95)
+                    .register(meterRegistry);
+            this.waitTime = Timer.builder("batcher.wait")
+                    .description("Time a lookup waits for its batch to be flushed")
+                    .tag("batcher", name)
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(meterRegistry);
+            this.lookups = Counter.builder("batcher.lookups")
+                    .description("Lookups sent in bulk calls")
+                    .tag("batcher", name)
+                    .register(meterRegistry);
+        } else {
+            this.batchSize = null;
+            this.waitTime = null;
+            this.lookups = null;
+        }
+    }
+
+    /**
+     * Queues a lookup for the given key.
+     *
+     * @param key the key to look up
+     * @return Mono emitting the value, empty if the bulk result has no entry for the key
+     */
+    public Mono<V> load(K key) {
+        Sinks.One<V> sink;
+        boolean flushNow = false;
+        boolean scheduleFlush = false;
+
+        synchronized (lock) {
+            Pending<V> existing = pending.get(key);
+            if (existing != null) {
+                sink = existing.sink();
+            } else {
+                sink = Sinks.one();
+                pending.put(key, new Pending<>(sink, System.nanoTime()));
+                if (pending.size() >= maxBatchSize) {
+                    flushNow = true;
+                } else if (!flushScheduled) {
+                    flushScheduled = true;
+                    scheduleFlush = true;
+                }
+            }
+        }
+
+        if (flushNow) {
+            flush();
+        } else if (scheduleFlush) {
+            scheduler.schedule(this::flush, window.toMillis(), TimeUnit.MILLISECONDS);
+        }
+        return sink.asMono();
+    }
+
+    /**
+     * Sends all pending lookups as one bulk call and completes their results.
+     */
+    private void flush() {
+        Map<K, Pending<V>> batch;
+        synchronized (lock) {
+            flushScheduled = false;
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = pending;
+            pending = new HashMap<>();
+        }
+
+        log.debug("Flushing {} batch with {} key(s)", name, batch.size());
+        if (batchSize != null) {
+            long now = System.nanoTime();
+            batchSize.record(batch.size());
+            lookups.increment(batch.size());
+            batch.values().forEach(p -> waitTime.record(now - p.enqueuedAt(), TimeUnit.NANOSECONDS));
+        }
+
+        Mono.defer(() -> bulkLoader.apply(batch.keySet()))
+                .subscribe(
+                        results -> batch.forEach((key, p) -> {
+                            V value = results.get(key);
+                            if (value != null) {
+                                p.sink().tryEmitValue(value);
+                            } else {
+                                p.sink().tryEmitEmpty();
+                            }
+                        }),
+                        error -> {
+                            log.warn("{} batch of {} key(s) failed: {}", name, batch.size(), error.getMessage());
+                            batch.values().forEach(p -> p.sink().tryEmitError(error));
+                        },
+                        () -> batch.values().forEach(p -> p.sink().tryEmitEmpty()));
+    }
+
+    private record Pending<V>(Sinks.One<V> sink, long enqueuedAt) {
+    }
+}
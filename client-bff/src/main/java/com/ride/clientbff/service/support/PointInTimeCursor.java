@@ -0,0 +1,56 @@
+package com.ride.clientbff.service.support;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Opaque deep-pagination cursor for Elasticsearch: the point-in-time the pages
+ * are read from and the sort values of the last hit on the previous page.
+ * <p>
+ * Clients must treat the encoded value as opaque and send it back unchanged.
+ *
+ * @param pitId       point-in-time id
+ * @param searchAfter sort values of the last hit on the previous page
+ * @param pageNumber  number of the page the cursor points to
+ */
+public record PointInTimeCursor(String pitId, List<Object> searchAfter, int pageNumber) {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    /**
+     * Encodes the cursor as a URL-safe token.
+     *
+     * @return opaque cursor token
+     */
+    public String encode() {
+        try {
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(MAPPER.writeValueAsBytes(this));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode cursor", e);
+        }
+    }
+
+    /**
+     * Decodes a cursor token produced by {@link #encode()}.
+     *
+     * @param token opaque cursor token
+     * @return decoded cursor
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static PointInTimeCursor decode(String token) {
+        try {
+            PointInTimeCursor cursor = MAPPER.readValue(Base64.getUrlDecoder().decode(token), PointInTimeCursor.class);
+            if (cursor.pitId() == null || cursor.searchAfter() == null || cursor.searchAfter().isEmpty()
+                    || cursor.pageNumber() < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return cursor;
+        } catch (IOException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
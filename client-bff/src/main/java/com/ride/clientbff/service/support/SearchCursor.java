@@ -0,0 +1,49 @@
+package com.ride.clientbff.service.support;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque pagination cursor: the result snapshot a page was served from and the
+ * rank of the first vehicle on the next page.
+ * <p>
+ * Clients must treat the encoded value as opaque and send it back unchanged.
+ *
+ * @param snapshotId id of the result snapshot
+ * @param offset     rank of the first vehicle on the next page
+ */
+public record SearchCursor(String snapshotId, int offset) {
+
+    private static final char SEPARATOR = ':';
+
+    /**
+     * Encodes the cursor as a URL-safe token.
+     *
+     * @return opaque cursor token
+     */
+    public String encode() {
+        String raw = snapshotId + SEPARATOR + offset;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodes a cursor token produced by {@link #encode()}.
+     *
+     * @param token opaque cursor token
+     * @return decoded cursor
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static SearchCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            int offset = Integer.parseInt(raw.substring(separator + 1));
+            if (separator <= 0 || offset < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            return new SearchCursor(raw.substring(0, separator), offset);
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+    }
+}
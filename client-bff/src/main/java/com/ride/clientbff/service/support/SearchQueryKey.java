@@ -0,0 +1,108 @@
+package com.ride.clientbff.service.support;
+
+import com.ride.clientbff.dto.AdvancedVehicleSearchRequestDto;
+import com.ride.clientbff.dto.VehicleSearchRequestDto;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Canonical key for a vehicle search request.
+ * <p>
+ * Requests that differ only in letter case or surrounding whitespace of their
+ * text fields produce equal keys, so they can share one backend query.
+ */
+public final class SearchQueryKey {
+
+    private final Object[] parts;
+
+    private SearchQueryKey(Object... parts) {
+        this.parts = parts;
+    }
+
+    /**
+     * Builds the key for a basic search: location, dates and times.
+     * Advanced fields are ignored, so every page of an advanced search maps to
+     * the same basic key.
+     *
+     * @param request the search request
+     * @return canonical key
+     */
+    public static SearchQueryKey of(VehicleSearchRequestDto request) {
+        return new SearchQueryKey(
+                "basic",
+                text(request.getPickupLocation()),
+                request.getPickupDate(),
+                request.getPickupTime(),
+                request.getDropOffDate(),
+                request.getDropOffTime());
+    }
+
+    /**
+     * Builds the key for an advanced search, including filters, sorting and paging.
+     *
+     * @param request the advanced search request
+     * @return canonical key
+     */
+    public static SearchQueryKey ofAdvanced(AdvancedVehicleSearchRequestDto request) {
+        return new SearchQueryKey(
+                "advanced",
+                ofRanking(request),
+                request.getPageNumber(),
+                request.getPageSize(),
+                request.getCursor(),
+                Boolean.TRUE.equals(request.getUseCursor()),
+                Boolean.TRUE.equals(request.getIncludeFacets()),
+                request.getLatitude(),
+                request.getLongitude(),
+                request.getRadiusKm());
+    }
+
+    /**
+     * Builds the key for the ranked result set of an advanced search: the basic
+     * search plus filters, sorting and user location, without paging.
+     *
+     * @param request the advanced search request
+     * @return canonical key shared by every page of the same query
+     */
+    public static SearchQueryKey ofRanking(AdvancedVehicleSearchRequestDto request) {
+        return new SearchQueryKey(
+                "ranking",
+                of(request),
+                request.getSortBy(),
+                upper(request.getSortDirection()),
+                upper(request.getBodyTypeFilter()),
+                request.getMinPrice(),
+                request.getMaxPrice(),
+                text(request.getUserLocation()));
+    }
+
+    private static String text(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String upper(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim().toUpperCase(Locale.ROOT);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof SearchQueryKey other && Arrays.equals(parts, other.parts);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(parts);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(parts);
+    }
+}
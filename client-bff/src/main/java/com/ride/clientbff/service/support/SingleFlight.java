@@ -0,0 +1,121 @@
+package com.ride.clientbff.service.support;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Runs at most one call per key at a time and shares its result with every
+ * caller that asks for the same key while it is in flight.
+ * <p>
+ * Nothing is cached once the call completes: the next caller after completion
+ * starts a new call. Shared results must be treated as read-only by callers.
+ *
+ * @param <K> call key type
+ * @param <V> call result type
+ */
+@Slf4j
+public class SingleFlight<K, V> {
+
+    private final String name;
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaderCalls;
+    private final Counter sharedCalls;
+
+    /**
+     * @param name          name used in log messages and the {@code name} metric tag
+     * @param meterRegistry registry for the {@code search.single.flight.calls} counters
+     */
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.leaderCalls = Counter.builder("search.single.flight.calls")
+                .description("Calls that ran the underlying operation")
+                .tag("name", name)
+                .tag("role", "leader")
+                .register(meterRegistry);
+        this.sharedCalls = Counter.builder("search.single.flight.calls")
+                .description("Calls that joined an in-flight operation for the same key")
+                .tag("name", name)
+                .tag("role", "shared")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the result of the in-flight call for the key, or runs the call if
+     * none is in flight.
+     *
+     * @param key  canonical call key
+     * @param call the operation to run when this caller is the leader
+     * @return the call result
+     */
+    public V execute(K key, Supplier<V> call) {
+        CompletableFuture<V> own = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, own);
+
+        if (existing != null) {
+            sharedCalls.increment();
+            log.debug("Joining in-flight {} call for key: {}", name, key);
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                if (e.getCause() instanceof Error cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        leaderCalls.increment();
+        try {
+            V result = call.get();
+            own.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, own);
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #execute(Object, Supplier)}.
+     * <p>
+     * The leader's call is subscribed independently of the callers, so a caller
+     * cancelling does not cancel the call for the others sharing it.
+     *
+     * @param key  canonical call key
+     * @param call the operation to subscribe to when this caller is the leader
+     * @return Mono emitting the shared call result
+     */
+    public Mono<V> executeReactive(K key, Supplier<Mono<V>> call) {
+        return Mono.defer(() -> {
+            CompletableFuture<V> own = new CompletableFuture<>();
+            CompletableFuture<V> existing = inFlight.putIfAbsent(key, own);
+
+            if (existing != null) {
+                sharedCalls.increment();
+                log.debug("Joining in-flight {} call for key: {}", name, key);
+                return Mono.fromFuture(existing, true);
+            }
+
+            leaderCalls.increment();
+            own.whenComplete((result, error) -> inFlight.remove(key, own));
+            Mono.defer(call).subscribe(
+                    own::complete,
+                    own::completeExceptionally,
+                    () -> own.complete(null));
+            return Mono.fromFuture(own, true);
+        });
+    }
+}
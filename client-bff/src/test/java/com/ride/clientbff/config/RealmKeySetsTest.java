@@ -0,0 +1,248 @@
+package com.ride.clientbff.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.nimbusds.jwt.proc.JWTProcessor;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies background key discovery against a local stub of a Keycloak realm:
+ * the saved-keys trust checks, the unknown key id refresh rate limit and the
+ * readiness transitions.
+ */
+class RealmKeySetsTest {
+
+    private static RSAKey firstKey;
+    private static RSAKey rotatedKey;
+    private static RSAKey strayKey;
+
+    @TempDir
+    Path tempDir;
+
+    private final AtomicReference<String> servedJwks = new AtomicReference<>();
+    private final AtomicInteger jwksRequests = new AtomicInteger();
+    private final List<RealmKeySets> created = new ArrayList<>();
+
+    private HttpServer keycloakStub;
+    private String issuer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        if (firstKey == null) {
+            firstKey = new RSAKeyGenerator(2048).keyID("first").generate();
+            rotatedKey = new RSAKeyGenerator(2048).keyID("rotated").generate();
+            strayKey = new RSAKeyGenerator(2048).keyID("stray").generate();
+        }
+
+        keycloakStub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        issuer = "http://localhost:" + keycloakStub.getAddress().getPort() + "/realms/test";
+        keycloakStub.createContext("/realms/test/.well-known/openid-configuration", exchange ->
+                respond(exchange, 200, "{\"issuer\":\"" + issuer + "\",\"jwks_uri\":\"" + issuer + "/certs\"}"));
+        keycloakStub.createContext("/realms/test/certs", exchange -> {
+            jwksRequests.incrementAndGet();
+            String jwks = servedJwks.get();
+            if (jwks == null) {
+                respond(exchange, 503, "{}");
+            } else {
+                respond(exchange, 200, jwks);
+            }
+        });
+        keycloakStub.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        created.forEach(RealmKeySets::destroy);
+        keycloakStub.stop(0);
+    }
+
+    @Test
+    void savedKeysVerifyTokensWhileKeycloakIsDown() throws Exception {
+        Path cacheDir = tempDir.resolve("jwks");
+        servedJwks.set(jwks(firstKey));
+        RealmKeySets fetching = realmKeySets(cacheDir, Duration.ofSeconds(30));
+        fetching.jwtProcessor(issuer);
+        await(() -> fetching.loaded().get(issuer));
+        await(() -> listFiles(cacheDir).anyMatch(file -> file.toString().endsWith(".json")));
+        assertEquals("rwx------", PosixFilePermissions.toString(Files.getPosixFilePermissions(cacheDir)));
+
+        servedJwks.set(null);
+        RealmKeySets restarted = realmKeySets(cacheDir, Duration.ofSeconds(30));
+        JWTProcessor<SecurityContext> processor = restarted.jwtProcessor(issuer);
+
+        assertTrue(restarted.loaded().get(issuer));
+        assertDoesNotThrow(() -> processor.process(token(firstKey), null));
+    }
+
+    @Test
+    void savedKeysWritableByOthersAreIgnored() throws Exception {
+        Path cacheDir = tempDir.resolve("jwks");
+        servedJwks.set(jwks(firstKey));
+        RealmKeySets fetching = realmKeySets(cacheDir, Duration.ofSeconds(30));
+        fetching.jwtProcessor(issuer);
+        await(() -> listFiles(cacheDir).anyMatch(file -> file.toString().endsWith(".json")));
+        Path savedFile = listFiles(cacheDir).filter(file -> file.toString().endsWith(".json")).findFirst().orElseThrow();
+        Files.setPosixFilePermissions(savedFile, PosixFilePermissions.fromString("rw-rw-rw-"));
+
+        servedJwks.set(null);
+        RealmKeySets restarted = realmKeySets(cacheDir, Duration.ofSeconds(30));
+        JWTProcessor<SecurityContext> processor = restarted.jwtProcessor(issuer);
+
+        assertFalse(restarted.loaded().get(issuer));
+        assertThrows(Exception.class, () -> processor.process(token(firstKey), null));
+    }
+
+    @Test
+    void savedKeysInGroupWritableDirectoryAreIgnored() throws Exception {
+        Path cacheDir = Files.createDirectory(tempDir.resolve("jwks"));
+        Files.setPosixFilePermissions(cacheDir, PosixFilePermissions.fromString("rwxrwx---"));
+
+        assertFalse(RealmKeySets.isTrusted(cacheDir));
+        Files.setPosixFilePermissions(cacheDir, PosixFilePermissions.fromString("rwx------"));
+        assertTrue(RealmKeySets.isTrusted(cacheDir));
+    }
+
+    @Test
+    void unknownKeyIdRefreshesAtMostOncePerInterval() throws Exception {
+        servedJwks.set(jwks(firstKey));
+        Duration minRefreshInterval = Duration.ofSeconds(2);
+        RealmKeySets realmKeySets = realmKeySets(null, minRefreshInterval);
+        JWTProcessor<SecurityContext> processor = realmKeySets.jwtProcessor(issuer);
+        await(() -> realmKeySets.loaded().get(issuer));
+        assertEquals(1, jwksRequests.get());
+        Thread.sleep(minRefreshInterval.toMillis() + 100);
+
+        // Keycloak rotates to a new key; tokens signed with it are unknown until the refresh lands
+        servedJwks.set(jwks(firstKey, rotatedKey));
+        SignedJWT rotatedToken = token(rotatedKey);
+        for (int i = 0; i < 10; i++) {
+            try {
+                processor.process(rotatedToken, null);
+            } catch (Exception e) {
+                // Expected until the background refresh picks up the rotated key
+            }
+        }
+        await(() -> {
+            try {
+                processor.process(token(rotatedKey), null);
+                return true;
+            } catch (Exception e) {
+                return false;
+            }
+        });
+
+        assertEquals(2, jwksRequests.get());
+
+        // Another unknown key id right after that refresh does not fetch again
+        SignedJWT strayToken = token(strayKey);
+        for (int i = 0; i < 10; i++) {
+            assertThrows(Exception.class, () -> processor.process(strayToken, null));
+        }
+        Thread.sleep(200);
+        assertEquals(2, jwksRequests.get());
+    }
+
+    @Test
+    void readinessIsDownUntilKeysAreLoaded() throws Exception {
+        RealmKeySets realmKeySets = realmKeySets(null, Duration.ofSeconds(30));
+        JwksHealthIndicator health = new JwksHealthIndicator(realmKeySets);
+        assertEquals(Status.UP, health.health().getStatus());
+
+        realmKeySets.jwtProcessor(issuer);
+        assertEquals(Status.OUT_OF_SERVICE, health.health().getStatus());
+        assertEquals("pending", health.health().getDetails().get(issuer));
+
+        // Keycloak comes up; the background fetch retries until it gets the keys
+        servedJwks.set(jwks(firstKey));
+        await(() -> Status.UP.equals(health.health().getStatus()));
+        assertEquals("loaded", health.health().getDetails().get(issuer));
+    }
+
+    private RealmKeySets realmKeySets(Path cacheDir, Duration minRefreshInterval) {
+        RealmKeySets realmKeySets = new RealmKeySets(WebClient.builder(), new ObjectMapper(),
+                new SimpleMeterRegistry(), cacheDir != null ? cacheDir.toString() : "",
+                Duration.ofHours(1), minRefreshInterval);
+        created.add(realmKeySets);
+        return realmKeySets;
+    }
+
+    private SignedJWT token(RSAKey key) throws JOSEException {
+        SignedJWT token = new SignedJWT(
+                new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(),
+                new JWTClaimsSet.Builder().issuer(issuer).subject("user").build());
+        token.sign(new RSASSASigner(key));
+        return token;
+    }
+
+    private static String jwks(RSAKey... keys) {
+        return new JWKSet(Stream.of(keys).map(RSAKey::toPublicJWK).map(JWK.class::cast).toList())
+                .toString();
+    }
+
+    private static Stream<Path> listFiles(Path dir) {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.toList().stream();
+        } catch (IOException e) {
+            return Stream.empty();
+        }
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("Condition not met within 10s");
+            }
+            Thread.sleep(20);
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body)
+            throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
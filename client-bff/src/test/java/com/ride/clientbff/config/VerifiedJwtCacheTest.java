@@ -0,0 +1,89 @@
+package com.ride.clientbff.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Verifies that verified tokens are served from the cache only until their
+ * {@code exp}, and that tokens which cannot expire are never cached.
+ */
+class VerifiedJwtCacheTest {
+
+    private static final Duration SHORT_LIFETIME = Duration.ofMillis(500);
+
+    private final VerifiedJwtCache cache = new VerifiedJwtCache(new SimpleMeterRegistry(), 100);
+
+    @Test
+    void verifiedTokenIsServedUntilItExpires() throws InterruptedException {
+        Jwt jwt = jwt("short-lived", Instant.now().plus(SHORT_LIFETIME));
+        cache.put(jwt);
+
+        assertSame(jwt, cache.getIfPresent("short-lived"));
+
+        Thread.sleep(SHORT_LIFETIME.toMillis() + 200);
+        assertNull(cache.getIfPresent("short-lived"));
+    }
+
+    @Test
+    void authoritiesAreNotServedAfterExpiry() throws InterruptedException {
+        AtomicInteger conversions = new AtomicInteger();
+        Converter<Jwt, Collection<GrantedAuthority>> authorities = cache.cachingAuthorities(token -> {
+            conversions.incrementAndGet();
+            return List.of(new SimpleGrantedAuthority("ROLE_CUSTOMER"));
+        });
+        Jwt jwt = jwt("short-lived", Instant.now().plus(SHORT_LIFETIME));
+        cache.put(jwt);
+
+        authorities.convert(jwt);
+        authorities.convert(jwt);
+        assertEquals(1, conversions.get());
+
+        Thread.sleep(SHORT_LIFETIME.toMillis() + 200);
+        authorities.convert(jwt);
+        authorities.convert(jwt);
+        assertEquals(3, conversions.get());
+    }
+
+    @Test
+    void expiredTokenIsNotCached() {
+        cache.put(jwt("expired", Instant.now().minusSeconds(1)));
+
+        assertNull(cache.getIfPresent("expired"));
+    }
+
+    @Test
+    void tokenWithoutExpiryIsNotCached() {
+        cache.put(jwt("no-exp", null));
+
+        assertNull(cache.getIfPresent("no-exp"));
+    }
+
+    @Test
+    void differentTokenIsNotServed() {
+        cache.put(jwt("first", Instant.now().plusSeconds(60)));
+
+        assertNull(cache.getIfPresent("second"));
+    }
+
+    private static Jwt jwt(String tokenValue, Instant expiresAt) {
+        return Jwt.withTokenValue(tokenValue)
+                .header("alg", "RS256")
+                .subject("user")
+                .expiresAt(expiresAt)
+                .build();
+    }
+}
@@ -0,0 +1,64 @@
+package com.ride.clientbff.controller;
+
+import com.ride.clientbff.config.SearchExecutionMode;
+import com.ride.clientbff.dto.AdvancedVehicleSearchRequestDto;
+import com.ride.clientbff.dto.PaginatedVehicleSearchResponseDto;
+import com.ride.clientbff.service.impl.ElasticsearchVehicleService;
+import com.ride.clientbff.service.support.PointInTimeCursor;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.scheduler.Schedulers;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies that a malformed pagination cursor is answered with 400 Bad Request
+ * in both execution modes, before any search is sent to Elasticsearch.
+ */
+class AdvancedVehicleSearchControllerTest {
+
+    static Stream<Arguments> malformedCursors() {
+        return Stream.of(SearchExecutionMode.values()).flatMap(mode -> Stream.of(
+                Arguments.of(mode, "not a cursor!"),
+                Arguments.of(mode, encode("{\"pitId\":")),
+                Arguments.of(mode, encode("{\"searchAfter\":[1],\"pageNumber\":1}")),
+                Arguments.of(mode, encode("{\"pitId\":\"pit\",\"searchAfter\":[],\"pageNumber\":1}")),
+                Arguments.of(mode, new PointInTimeCursor("pit", List.of(1), -1).encode())));
+    }
+
+    @ParameterizedTest
+    @MethodSource("malformedCursors")
+    void malformedCursorIsBadRequest(SearchExecutionMode mode, String cursor) {
+        // No Elasticsearch behind the service: the cursor must be rejected before any search
+        ElasticsearchVehicleService elasticsearchService =
+                new ElasticsearchVehicleService(null, null, null, Schedulers.immediate(), null);
+        AdvancedVehicleSearchController controller = new AdvancedVehicleSearchController(null, elasticsearchService);
+        ReflectionTestUtils.setField(controller, "executionMode", mode);
+
+        AdvancedVehicleSearchRequestDto request = new AdvancedVehicleSearchRequestDto();
+        request.setPickupLocation("Colombo");
+        request.setCursor(cursor);
+
+        ResponseEntity<PaginatedVehicleSearchResponseDto> response =
+                controller.searchWithAdvancedFilters(request).block();
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertFalse(response.getBody().isSuccess());
+        assertTrue(response.getBody().getMessage().contains("Invalid cursor"));
+    }
+
+    private static String encode(String json) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,110 @@
+package com.ride.clientbff.service.impl;
+
+import com.ride.clientbff.dto.AdvancedVehicleSearchRequestDto;
+import com.ride.clientbff.dto.AvailableVehicleDto;
+import com.ride.clientbff.dto.PaginatedVehicleSearchResponseDto;
+import com.ride.clientbff.dto.VehicleSearchRequestDto;
+import com.ride.clientbff.dto.VehicleSearchResponseDto;
+import com.ride.clientbff.service.IVehicleSearchService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies that a new search always runs and replaces the result snapshot,
+ * while later pages of the same query are sliced from it.
+ */
+class AdvancedVehicleSearchServiceTest {
+
+    private final CountingVehicleSearchService vehicleSearchService = new CountingVehicleSearchService();
+    private final AdvancedVehicleSearchService advancedSearchService = new AdvancedVehicleSearchService(
+            vehicleSearchService, new SimpleMeterRegistry(), 100, 500, Duration.ofMinutes(5));
+
+    @Test
+    void repeatedFirstPageSearchRunsAgainAndLaterPageIsServedFromSnapshot() {
+        PaginatedVehicleSearchResponseDto first = advancedSearchService.searchWithAdvancedFilters(request(0));
+        assertTrue(first.isSuccess());
+        assertEquals(1, vehicleSearchService.calls.get());
+
+        advancedSearchService.searchWithAdvancedFilters(request(0));
+        assertEquals(2, vehicleSearchService.calls.get());
+
+        PaginatedVehicleSearchResponseDto second = advancedSearchService.searchWithAdvancedFilters(request(1));
+        assertTrue(second.isSuccess());
+        assertEquals(1, second.getPageNumber());
+        assertEquals(2, vehicleSearchService.calls.get());
+    }
+
+    @Test
+    void cursorPageIsServedFromSnapshot() {
+        PaginatedVehicleSearchResponseDto first = advancedSearchService.searchWithAdvancedFilters(request(0));
+        assertNotNull(first.getNextCursor());
+
+        AdvancedVehicleSearchRequestDto next = request(0);
+        next.setCursor(first.getNextCursor());
+        PaginatedVehicleSearchResponseDto second = advancedSearchService.searchWithAdvancedFilters(next);
+
+        assertEquals(1, second.getPageNumber());
+        assertEquals(1, vehicleSearchService.calls.get());
+    }
+
+    private static AdvancedVehicleSearchRequestDto request(int pageNumber) {
+        AdvancedVehicleSearchRequestDto request = new AdvancedVehicleSearchRequestDto();
+        request.setPickupLocation("Colombo");
+        request.setPickupDate(LocalDate.of(2026, 11, 1));
+        request.setDropOffDate(LocalDate.of(2026, 11, 4));
+        request.setPageNumber(pageNumber);
+        request.setPageSize(10);
+        request.setSortBy("pricePerDay");
+        request.setSortDirection("ASC");
+        return request;
+    }
+
+    /**
+     * Answers every search with the same 25 priced vehicles and counts the searches.
+     */
+    private static final class CountingVehicleSearchService implements IVehicleSearchService {
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public VehicleSearchResponseDto searchAvailableVehicles(VehicleSearchRequestDto searchRequest) {
+            calls.incrementAndGet();
+            List<AvailableVehicleDto> vehicles = IntStream.range(0, 25)
+                    .mapToObj(i -> AvailableVehicleDto.builder()
+                            .ownerHasVehicleId(UUID.randomUUID())
+                            .location("Colombo")
+                            .bodyType("SUV")
+                            .pricePerDay(100 + i)
+                            .build())
+                    .toList();
+            return VehicleSearchResponseDto.builder()
+                    .vehicles(vehicles)
+                    .totalVehicles(vehicles.size())
+                    .success(true)
+                    .build();
+        }
+
+        @Override
+        public Mono<VehicleSearchResponseDto> searchAvailableVehiclesReactive(VehicleSearchRequestDto searchRequest) {
+            return Mono.fromCallable(() -> searchAvailableVehicles(searchRequest));
+        }
+
+        @Override
+        public Flux<AvailableVehicleDto> streamAvailableVehicles(VehicleSearchRequestDto searchRequest) {
+            return searchAvailableVehiclesReactive(searchRequest).flatMapIterable(VehicleSearchResponseDto::getVehicles);
+        }
+    }
+}
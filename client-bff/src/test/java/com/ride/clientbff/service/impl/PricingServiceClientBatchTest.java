@@ -0,0 +1,133 @@
+package com.ride.clientbff.service.impl;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ride.clientbff.dto.AvailableVehicleDto;
+import com.ride.clientbff.dto.PriceRangeDto;
+import com.ride.clientbff.dto.PriceResponseDto;
+import com.ride.clientbff.service.ServiceTokenService;
+import com.ride.clientbff.service.support.DownstreamGuard;
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies cross-request micro-batching of pricing lookups against a local
+ * stub of the pricing-service bulk endpoint.
+ */
+class PricingServiceClientBatchTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<List<String>> bulkRequests = new CopyOnWriteArrayList<>();
+
+    private HttpServer pricingStub;
+    private PricingServiceClient pricingServiceClient;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        pricingStub = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        pricingStub.createContext("/api/v1/pricing/prices/bulk", exchange -> {
+            List<String> ids = objectMapper.readValue(exchange.getRequestBody(), new TypeReference<>() {
+            });
+            bulkRequests.add(ids);
+
+            // IDs starting with "missing" have no pricing configured
+            List<PriceResponseDto> prices = ids.stream()
+                    .filter(id -> !id.startsWith("missing"))
+                    .map(id -> PriceResponseDto.builder()
+                            .vehicleId(id)
+                            .priceRange(new PriceRangeDto(100.0, 600.0, 2400.0))
+                            .currencyCode("LKR")
+                            .build())
+                    .toList();
+
+            byte[] body = objectMapper.writeValueAsString(prices).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        pricingStub.start();
+
+        ServiceTokenService tokenService = new ServiceTokenService(WebClient.create(), "http://unused", "client", "secret",
+                new SimpleMeterRegistry()) {
+            @Override
+            public Mono<String> getAccessToken() {
+                return Mono.just("test-token");
+            }
+        };
+
+        WebClient webClient = WebClient.create("http://localhost:" + pricingStub.getAddress().getPort());
+        DownstreamGuard guard = DownstreamGuard.of("pricing-service", CircuitBreakerRegistry.ofDefaults(),
+                BulkheadRegistry.ofDefaults(),
+                // Generous timeout: the first call of a fresh JVM pays for the Netty start-up
+                TimeLimiterRegistry.of(TimeLimiterConfig.custom().timeoutDuration(Duration.ofSeconds(10)).build()));
+        pricingServiceClient = new PricingServiceClient(webClient, tokenService, guard, new SimpleMeterRegistry(),
+                50, 100, 1000, Duration.ofHours(1), Duration.ofMinutes(10), Duration.ofSeconds(60));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pricingStub.stop(0);
+    }
+
+    @Test
+    void concurrentLookupsAreMergedIntoOneBulkRequest() {
+        var results = Mono.zip(
+                pricingServiceClient.getPricingForVehicles(List.of("v1", "v2")),
+                pricingServiceClient.getPricingForVehicles(List.of("v2", "v3"))
+        ).block();
+
+        assertEquals(1, bulkRequests.size());
+        assertEquals(3, bulkRequests.get(0).size());
+
+        Map<String, AvailableVehicleDto> first = results.getT1();
+        Map<String, AvailableVehicleDto> second = results.getT2();
+        assertEquals(2, first.size());
+        assertEquals(2, second.size());
+        assertEquals(100.0, second.get("v3").getPricePerDay());
+        assertEquals("LKR", first.get("v2").getCurrencyCode());
+    }
+
+    @Test
+    void vehiclesWithoutPricingAreOmitted() {
+        Map<String, AvailableVehicleDto> result = pricingServiceClient
+                .getPricingForVehicles(List.of("v1", "missing-1"))
+                .block();
+
+        assertTrue(result.containsKey("v1"));
+        assertFalse(result.containsKey("missing-1"));
+    }
+
+    @Test
+    void cachedPricingIsNotFetchedAgain() {
+        pricingServiceClient.getPricingForVehicles(List.of("v1", "missing-1")).block();
+        Map<String, AvailableVehicleDto> result = pricingServiceClient
+                .getPricingForVehicles(List.of("v1", "missing-1"))
+                .block();
+
+        assertEquals(1, bulkRequests.size());
+        assertEquals(1, result.size());
+    }
+}
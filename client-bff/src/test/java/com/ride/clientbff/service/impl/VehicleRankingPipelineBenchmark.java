@@ -0,0 +1,102 @@
+package com.ride.clientbff.service.impl;
+
+import com.ride.clientbff.dto.AdvancedVehicleSearchRequestDto;
+import com.ride.clientbff.dto.AvailableVehicleDto;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the fused {@link VehicleRankingPipeline} with the previous
+ * prioritize / filter / sort / subList stages of AdvancedVehicleSearchService.
+ * <p>
+ * Run with: {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.ride.clientbff.service.impl.VehicleRankingPipelineBenchmark}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VehicleRankingPipelineBenchmark {
+
+    private static final String[] LOCATIONS = {"Colombo", "Kandy", "Galle", "Negombo", "Katunayake"};
+    private static final String[] BODY_TYPES = {"SUV", "SEDAN", "HATCHBACK", "VAN"};
+
+    @Param({"1000", "10000", "100000"})
+    private int candidates;
+
+    private List<AvailableVehicleDto> vehicles;
+    private AdvancedVehicleSearchRequestDto searchRequest;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        vehicles = new ArrayList<>(candidates);
+        for (int i = 0; i < candidates; i++) {
+            vehicles.add(AvailableVehicleDto.builder()
+                    .ownerHasVehicleId(UUID.randomUUID())
+                    .location(LOCATIONS[random.nextInt(LOCATIONS.length)])
+                    .bodyType(BODY_TYPES[random.nextInt(BODY_TYPES.length)])
+                    .pricePerDay(20 + random.nextInt(480))
+                    .build());
+        }
+
+        searchRequest = new AdvancedVehicleSearchRequestDto();
+        searchRequest.setPageNumber(2);
+        searchRequest.setPageSize(20);
+        searchRequest.setSortBy("pricePerDay");
+        searchRequest.setSortDirection("ASC");
+        searchRequest.setMaxPrice(400.0);
+        searchRequest.setUserLocation("Colombo");
+    }
+
+    @Benchmark
+    public VehicleRankingPipeline.RankedPage fusedPipeline() {
+        return VehicleRankingPipeline.rank(vehicles, searchRequest);
+    }
+
+    @Benchmark
+    public List<AvailableVehicleDto> stagedPipeline() {
+        String userLocation = searchRequest.getUserLocation();
+
+        // Prioritize by user location
+        List<AvailableVehicleDto> prioritized = vehicles.stream()
+                .filter(v -> userLocation.equalsIgnoreCase(v.getLocation()))
+                .collect(Collectors.toList());
+        prioritized.addAll(vehicles.stream()
+                .filter(v -> !userLocation.equalsIgnoreCase(v.getLocation()))
+                .collect(Collectors.toList()));
+
+        // Filter
+        List<AvailableVehicleDto> filtered = prioritized.stream()
+                .filter(v -> v.getPricePerDay() <= searchRequest.getMaxPrice())
+                .collect(Collectors.toList());
+
+        // Full sort
+        List<AvailableVehicleDto> sorted = filtered.stream()
+                .sorted(Comparator.comparingDouble(AvailableVehicleDto::getPricePerDay))
+                .collect(Collectors.toList());
+
+        // Page
+        int start = searchRequest.getPageNumber() * searchRequest.getPageSize();
+        return sorted.subList(start, Math.min(start + searchRequest.getPageSize(), sorted.size()));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(VehicleRankingPipelineBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
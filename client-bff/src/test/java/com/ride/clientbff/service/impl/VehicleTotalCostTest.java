@@ -0,0 +1,118 @@
+package com.ride.clientbff.service.impl;
+
+import com.ride.clientbff.dto.AvailableVehicleDto;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Verifies that the painless total cost script applies the same tiering as
+ * {@link VehicleSearchService#calculateTotalCost}, plus the indexed discount,
+ * and that {@link VehicleTotalCost#compute} used by the replica agrees with it.
+ * <p>
+ * The script only uses the Java subset of painless, so it is compiled as Java
+ * with {@code doc['field']} and {@code params} backed by plain values.
+ */
+class VehicleTotalCostTest {
+
+    private static final double DAY = 100.0;
+    private static final double WEEK = 600.0;
+    private static final double MONTH = 2400.0;
+
+    @TempDir
+    static Path classesDir;
+
+    private static Method script;
+
+    @BeforeAll
+    static void compileScript() throws Exception {
+        String body = VehicleTotalCost.SCRIPT.replaceAll("doc\\['(\\w+)'\\]", "doc.apply(\"$1\")");
+        String source = """
+                import java.util.Map;
+                import java.util.function.Function;
+
+                public class TotalCostScript {
+                    public static final class Field {
+                        public final double value;
+                        private final int size;
+                        Field(Double value) {
+                            this.value = value == null ? 0 : value;
+                            this.size = value == null ? 0 : 1;
+                        }
+                        public int size() {
+                            return size;
+                        }
+                    }
+                    public static final class Params {
+                        public long rentalDays;
+                        public double missing;
+                    }
+                    public static Object run(Map<String, Double> values, long rentalDays, double missing) {
+                        Params params = new Params();
+                        params.rentalDays = rentalDays;
+                        params.missing = missing;
+                        Function<String, Field> doc = name -> new Field(values.get(name));
+                """ + body + """
+                    }
+                }
+                """;
+        Path sourceFile = classesDir.resolve("TotalCostScript.java");
+        Files.writeString(sourceFile, source);
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertEquals(0, compiler.run(null, null, null, "-d", classesDir.toString(), sourceFile.toString()),
+                "total cost script does not compile as Java");
+
+        URLClassLoader loader = new URLClassLoader(new URL[]{classesDir.toUri().toURL()},
+                VehicleTotalCostTest.class.getClassLoader());
+        script = loader.loadClass("TotalCostScript").getMethod("run", Map.class, long.class, double.class);
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {1, 7, 10, 30, 45})
+    void scriptMatchesPricingPathTiering(long rentalDays) throws Exception {
+        double expected = VehicleSearchService.calculateTotalCost(pricing(), rentalDays);
+
+        assertEquals(expected, runScript(rentalDays, null), 1e-9);
+        assertEquals(expected, VehicleTotalCost.compute(DAY, WEEK, MONTH, null, rentalDays), 1e-9);
+    }
+
+    @ParameterizedTest
+    @ValueSource(longs = {1, 7, 10, 30, 45})
+    void scriptAppliesDiscountToTotal(long rentalDays) throws Exception {
+        double expected = VehicleSearchService.calculateTotalCost(pricing(), rentalDays) * 0.85;
+
+        assertEquals(expected, runScript(rentalDays, 15.0), 1e-9);
+        assertEquals(expected, VehicleTotalCost.compute(DAY, WEEK, MONTH, 15.0, rentalDays), 1e-9);
+    }
+
+    private static double runScript(long rentalDays, Double discountPercent) throws Exception {
+        Map<String, Double> values = new HashMap<>();
+        values.put("pricePerDay", DAY);
+        values.put("pricePerWeek", WEEK);
+        values.put("pricePerMonth", MONTH);
+        values.put("discountPercent", discountPercent);
+        return ((Number) script.invoke(null, values, rentalDays, Double.MAX_VALUE)).doubleValue();
+    }
+
+    private static AvailableVehicleDto pricing() {
+        AvailableVehicleDto vehicle = new AvailableVehicleDto();
+        vehicle.setPricePerDay(DAY);
+        vehicle.setPricePerWeek(WEEK);
+        vehicle.setPricePerMonth(MONTH);
+        return vehicle;
+    }
+}
@@ -0,0 +1,112 @@
+package com.ride.clientbff.service.support;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies the hedge budget and that a read losing the race is released rather
+ * than dropped.
+ */
+class HedgePolicyTest {
+
+    private static final Duration HEDGE_DELAY = Duration.ofMillis(20);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void hedgesStayWithinBudget() {
+        // 50 hedges per 100 reads: each read earns half a hedge
+        HedgePolicy policy = newPolicy(50);
+        warmUp(policy);
+
+        AtomicInteger hedgesSent = new AtomicInteger();
+        for (int i = 0; i < 10; i++) {
+            String value = policy.execute(Mono.delay(Duration.ofMillis(200)).thenReturn("primary"),
+                    () -> {
+                        hedgesSent.incrementAndGet();
+                        return Mono.just("hedge");
+                    }).block();
+            assertTrue("primary".equals(value) || "hedge".equals(value));
+        }
+
+        // 2.5 hedges saved during warm-up, then 0.5 per read: hedges on reads 1-5, 7 and 9
+        assertEquals(7, hedgesSent.get());
+        assertEquals(7, count("sent"));
+        assertEquals(3, count("no_budget"));
+    }
+
+    @Test
+    void readLosingTheRaceIsReleased() {
+        HedgePolicy policy = newPolicy(100);
+        warmUp(policy);
+
+        // A primary whose response arrives after the hedge won, despite the cancellation
+        AtomicReference<Subscriber<? super String>> primarySubscriber = new AtomicReference<>();
+        Publisher<String> latePrimary = subscriber -> {
+            primarySubscriber.set(subscriber);
+            subscriber.onSubscribe(new Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+        };
+        List<String> released = new CopyOnWriteArrayList<>();
+
+        String value = policy.execute(Mono.fromDirect(latePrimary), () -> Mono.just("hedge response"), released::add)
+                .block();
+        primarySubscriber.get().onNext("primary response");
+        primarySubscriber.get().onComplete();
+
+        assertEquals("hedge response", value);
+        assertEquals(List.of("primary response"), released);
+        assertEquals(1, count("won"));
+    }
+
+    @Test
+    void winningReadIsNotReleased() {
+        HedgePolicy policy = newPolicy(100);
+        warmUp(policy);
+        List<String> released = new CopyOnWriteArrayList<>();
+
+        String value = policy.execute(Mono.just("primary response"), () -> Mono.just("hedge response"), released::add)
+                .block();
+
+        assertEquals("primary response", value);
+        assertTrue(released.isEmpty());
+    }
+
+    private HedgePolicy newPolicy(double budgetPercent) {
+        return new HedgePolicy("test", true, 0.5, budgetPercent, HEDGE_DELAY, 20, 5, meterRegistry);
+    }
+
+    /**
+     * Records enough fast reads for the policy to start hedging at its minimum delay.
+     */
+    private static void warmUp(HedgePolicy policy) {
+        for (int i = 0; i < 5; i++) {
+            policy.execute(Mono.just("warm-up"), () -> Mono.just("warm-up")).block();
+        }
+        assertEquals(HEDGE_DELAY, policy.delay().orElseThrow());
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get("hedge.requests").tags("target", "test", "outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,154 @@
+package com.ride.clientbff.service.support;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifies that callers joining an in-flight call share its error, and that
+ * the key is released once the call fails or its callers cancel, so the next
+ * caller starts a new call.
+ */
+class SingleFlightTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>("test", meterRegistry);
+
+    @Test
+    void errorIsSharedWithJoiningCallers() throws Exception {
+        IllegalStateException failure = new IllegalStateException("search failed");
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLeader = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+
+        CompletableFuture<Throwable> leader = CompletableFuture.supplyAsync(() -> assertThrows(
+                IllegalStateException.class, () -> singleFlight.execute("key", () -> {
+                    leaderStarted.countDown();
+                    await(releaseLeader);
+                    throw failure;
+                })), callers);
+        assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Throwable> joiner = CompletableFuture.supplyAsync(() -> assertThrows(
+                IllegalStateException.class, () -> singleFlight.execute("key", () -> "not called")), callers);
+        awaitCount("shared", 1);
+        releaseLeader.countDown();
+
+        assertSame(failure, leader.get(5, TimeUnit.SECONDS));
+        assertSame(failure, joiner.get(5, TimeUnit.SECONDS));
+        assertEquals(1, count("leader"));
+        callers.shutdown();
+    }
+
+    @Test
+    void keyIsReleasedAfterError() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute("key", () -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("search failed");
+        }));
+        String result = singleFlight.execute("key", () -> "call " + calls.incrementAndGet());
+
+        assertEquals("call 2", result);
+        assertEquals(2, count("leader"));
+        assertEquals(0, count("shared"));
+    }
+
+    @Test
+    void reactiveErrorIsSharedAndReleasesKey() {
+        Sinks.One<String> call = Sinks.one();
+        IllegalStateException failure = new IllegalStateException("search failed");
+
+        Mono<String> leader = singleFlight.executeReactive("key", call::asMono).cache();
+        Mono<String> joiner = singleFlight.executeReactive("key", () -> Mono.just("not called")).cache();
+        leader.subscribe(value -> { }, error -> { });
+        joiner.subscribe(value -> { }, error -> { });
+        call.tryEmitError(failure);
+
+        assertSame(failure, assertThrows(IllegalStateException.class, () -> leader.block(TIMEOUT)));
+        assertSame(failure, assertThrows(IllegalStateException.class, () -> joiner.block(TIMEOUT)));
+        assertEquals("next", singleFlight.executeReactive("key", () -> Mono.just("next")).block(TIMEOUT));
+        assertEquals(2, count("leader"));
+        assertEquals(1, count("shared"));
+    }
+
+    @Test
+    void reactiveKeyIsReleasedWhenCallFailsToStart() {
+        assertThrows(IllegalStateException.class, () -> singleFlight.executeReactive("key", () -> {
+            throw new IllegalStateException("no connection");
+        }).block(TIMEOUT));
+
+        assertEquals("next", singleFlight.executeReactive("key", () -> Mono.just("next")).block(TIMEOUT));
+    }
+
+    @Test
+    void cancelledCallerDoesNotCancelSharedCallAndKeyIsReleased() {
+        Sinks.One<String> call = Sinks.one();
+        AtomicBoolean callCancelled = new AtomicBoolean();
+
+        Disposable cancelledLeader = singleFlight.executeReactive("key",
+                () -> call.asMono().doOnCancel(() -> callCancelled.set(true))).subscribe();
+        Mono<String> joiner = singleFlight.executeReactive("key", () -> Mono.just("not called")).cache();
+        joiner.subscribe();
+        cancelledLeader.dispose();
+        call.tryEmitValue("result");
+
+        assertFalse(callCancelled.get());
+        assertEquals("result", joiner.block(TIMEOUT));
+        assertEquals("next", singleFlight.executeReactive("key", () -> Mono.just("next")).block(TIMEOUT));
+    }
+
+    @Test
+    void keyIsReleasedWhenCallFailsAfterCallersCancelled() {
+        Sinks.One<String> call = Sinks.one();
+
+        singleFlight.executeReactive("key", call::asMono).subscribe().dispose();
+        call.tryEmitError(new IllegalStateException("search failed"));
+
+        assertEquals("next", singleFlight.executeReactive("key", () -> Mono.just("next")).block(TIMEOUT));
+        assertEquals(2, count("leader"));
+    }
+
+    private double count(String role) {
+        return meterRegistry.get("search.single.flight.calls").tags("name", "test", "role", role).counter().count();
+    }
+
+    private void awaitCount(String role, double expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (count(role) < expected) {
+            if (System.nanoTime() > deadline) {
+                throw new AssertionError("No " + role + " call within " + TIMEOUT);
+            }
+            Thread.sleep(10);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(5, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}